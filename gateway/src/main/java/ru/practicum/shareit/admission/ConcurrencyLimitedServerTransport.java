@@ -0,0 +1,56 @@
+package ru.practicum.shareit.admission;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Takes a {@link ConcurrencyLimiter} slot for each server call, measured from send to response headers.
+ */
+class ConcurrencyLimitedServerTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final ConcurrencyLimiter limiter;
+
+    ConcurrencyLimitedServerTransport(ServerTransport delegate, ConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters,
+                                                 HttpEntity<?> requestEntity) {
+        return Mono.defer(() -> {
+            if (!limiter.tryAcquire()) {
+                return Mono.error(new ServerOverloadedException(
+                        "Concurrency limit reached for " + method + " " + path));
+            }
+            // the slot is freed before the response goes downstream, with doFinally a caller chaining its next
+            // call would still find it taken
+            long start = System.nanoTime();
+            AtomicBoolean done = new AtomicBoolean();
+            return delegate.exchange(method, path, parameters, requestEntity)
+                    .doOnSuccess(response -> release(done, start,
+                            response != null && isOverloaded(response.getStatusCodeValue()), false))
+                    .doOnError(e -> release(done, start, true, false))
+                    .doOnCancel(() -> release(done, start, false, true));
+        });
+    }
+
+    private void release(AtomicBoolean done, long start, boolean overloaded, boolean cancelled) {
+        if (done.compareAndSet(false, true)) {
+            limiter.release(System.nanoTime() - start, overloaded, cancelled);
+        }
+    }
+
+    private static boolean isOverloaded(int status) {
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+}
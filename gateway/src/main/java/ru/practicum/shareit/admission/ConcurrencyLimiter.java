@@ -0,0 +1,108 @@
+package ru.practicum.shareit.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Adaptive limit on concurrent server calls (AIMD): calls answered within the latency SLO raise the limit
+ * by about one per limit completions, a slow call, a 503/504 or a failed call cuts it by the backoff factor.
+ * Calls over the limit are refused at once with 503 instead of waiting for a pooled connection,
+ * so an overloaded server is not handed a growing queue.
+ */
+@Component
+public class ConcurrencyLimiter implements MeterBinder {
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencySloNanos;
+    private final double backoff;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public ConcurrencyLimiter(@Value("${shareit-gateway.concurrency.enabled}") boolean enabled,
+                              @Value("${shareit-gateway.concurrency.initial-limit}") int initialLimit,
+                              @Value("${shareit-gateway.concurrency.min-limit}") int minLimit,
+                              @Value("${shareit-gateway.concurrency.max-limit}") int maxLimit,
+                              @Value("${shareit-gateway.concurrency.latency-slo}") Duration latencySlo) {
+        this(enabled, initialLimit, minLimit, maxLimit, latencySlo, 0.9);
+    }
+
+    ConcurrencyLimiter(boolean enabled, int initialLimit, int minLimit, int maxLimit, Duration latencySlo,
+                       double backoff) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencySloNanos = latencySlo.toNanos();
+        this.backoff = backoff;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    public ServerTransport decorate(ServerTransport transport) {
+        return enabled ? new ConcurrencyLimitedServerTransport(transport, this) : transport;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot and feeds the call outcome back into the limit, cancelled calls only free the slot.
+     */
+    void release(long latencyNanos, boolean overloaded, boolean cancelled) {
+        int wasInFlight = inFlight.getAndDecrement();
+        if (cancelled) {
+            return;
+        }
+        if (overloaded || latencyNanos > latencySloNanos) {
+            updateLimit(limit -> Math.max(minLimit, limit * backoff));
+        } else if (wasInFlight * 2 >= limit()) {
+            // grow only while the limit is actually used
+            updateLimit(limit -> Math.min(maxLimit, limit + 1 / limit));
+        }
+    }
+
+    double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        limitBits.updateAndGet(bits -> Double.doubleToLongBits(update.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("gateway.concurrency.limit", this, ConcurrencyLimiter::limit)
+                .register(registry);
+        Gauge.builder("gateway.concurrency.in.flight", this, ConcurrencyLimiter::inFlight)
+                .register(registry);
+        FunctionCounter.builder("gateway.concurrency.rejected", rejected, LongAdder::sum)
+                .register(registry);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission in front of the controllers: every user and every route has its own token bucket.
+ * Requests without X-Sharer-User-Id are limited by client address. User buckets live in a bounded
+ * cache and are dropped after being idle, route buckets are few and kept for good. A route bucket takes
+ * every request of its route, so it is striped; a user bucket sees one user's requests and is not.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor, WebMvcConfigurer, MeterBinder {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final boolean enabled;
+    private final double userRate;
+    private final int userBurst;
+    private final double routeRate;
+    private final int routeBurst;
+    private final int routeStripes;
+    private final Cache<String, TokenBucket> userBuckets;
+    private final Map<String, StripedTokenBucket> routeBuckets = new ConcurrentHashMap<>();
+    private final LongAdder userRejected = new LongAdder();
+    private final LongAdder routeRejected = new LongAdder();
+
+    public RateLimitInterceptor(@Value("${shareit-gateway.rate-limit.enabled}") boolean enabled,
+                                @Value("${shareit-gateway.rate-limit.user.rate}") double userRate,
+                                @Value("${shareit-gateway.rate-limit.user.burst}") int userBurst,
+                                @Value("${shareit-gateway.rate-limit.route.rate}") double routeRate,
+                                @Value("${shareit-gateway.rate-limit.route.burst}") int routeBurst,
+                                @Value("${shareit-gateway.rate-limit.route.stripes}") int routeStripes,
+                                @Value("${shareit-gateway.rate-limit.max-users}") long maxUsers,
+                                @Value("${shareit-gateway.rate-limit.idle-expiry}") Duration idleExpiry) {
+        this.enabled = enabled;
+        this.userRate = userRate;
+        this.userBurst = userBurst;
+        this.routeRate = routeRate;
+        this.routeBurst = routeBurst;
+        this.routeStripes = routeStripes;
+        this.userBuckets = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(this);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the async dispatch that writes a server answer was admitted already
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        long now = System.nanoTime();
+
+        String user = request.getHeader(USER_HEADER);
+        String client = user != null ? "user:" + user : "address:" + request.getRemoteAddr();
+        TokenBucket userBucket = userBuckets.get(client, key -> new TokenBucket(userRate, userBurst, now));
+        long wait = userBucket.tryAcquire(now);
+        if (wait > 0) {
+            userRejected.increment();
+            throw new TooManyRequestsException("Слишком много запросов, повторите позже.", retryAfterSeconds(wait));
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+        wait = routeBuckets.computeIfAbsent(route,
+                key -> new StripedTokenBucket(routeRate, routeBurst, routeStripes, now)).tryAcquire(now);
+        if (wait > 0) {
+            // the user is not charged for a request the route refused
+            userBucket.refund();
+            routeRejected.increment();
+            throw new TooManyRequestsException("Сервис перегружен, повторите запрос позже.", retryAfterSeconds(wait));
+        }
+        return true;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.rate.limit.rejected", userRejected, LongAdder::sum)
+                .tag("limit", "user")
+                .register(registry);
+        FunctionCounter.builder("gateway.rate.limit.rejected", routeRejected, LongAdder::sum)
+                .tag("limit", "route")
+                .register(registry);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.admission;
+
+public class ServerOverloadedException extends RuntimeException {
+    public ServerOverloadedException(String message) {
+        super(message);
+    }
+}
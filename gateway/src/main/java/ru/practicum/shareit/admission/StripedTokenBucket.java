@@ -0,0 +1,41 @@
+package ru.practicum.shareit.admission;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Token bucket split into stripes, so the requests of one busy route do not all compete for the same CAS.
+ * Each stripe gets its share of the rate and the burst. A request starts at a random stripe and moves on to
+ * the next one only when refused, so together the stripes still grant the whole rate and burst.
+ */
+class StripedTokenBucket {
+    private final TokenBucket[] stripes;
+
+    StripedTokenBucket(double tokensPerSecond, int burst, int stripeCount, long nowNanos) {
+        int count = Math.max(1, Math.min(stripeCount, burst));
+        this.stripes = new TokenBucket[count];
+        for (int i = 0; i < count; i++) {
+            int stripeBurst = burst / count + (i < burst % count ? 1 : 0);
+            stripes[i] = new TokenBucket(tokensPerSecond / count, stripeBurst, nowNanos);
+        }
+    }
+
+    /**
+     * Takes a token from any stripe, returns 0 when taken or the nanoseconds until the earliest next token.
+     */
+    long tryAcquire(long nowNanos) {
+        int start = stripes.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(stripes.length);
+        long wait = Long.MAX_VALUE;
+        for (int i = 0; i < stripes.length; i++) {
+            long stripeWait = stripes[(start + i) % stripes.length].tryAcquire(nowNanos);
+            if (stripeWait == 0) {
+                return 0;
+            }
+            wait = Math.min(wait, stripeWait);
+        }
+        return wait;
+    }
+
+    int stripes() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single theoretical arrival time (the GCRA form of the bucket):
+ * each request moves it one token interval ahead, a request is refused when that would put it
+ * further ahead of now than the burst allows. One CAS per request, no refill thread.
+ */
+class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.burstNanos = nanosPerToken * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token, returns 0 when taken or the nanoseconds until the next token otherwise.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + nanosPerToken;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire}, for a request that another limit refused afterwards.
+     */
+    void refund() {
+        theoreticalArrival.addAndGet(-nanosPerToken);
+    }
+}
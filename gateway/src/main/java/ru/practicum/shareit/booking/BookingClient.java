@@ -2,14 +2,13 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
 import java.util.Map;
 
@@ -18,45 +17,48 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transports) {
+        super(transports.create(serverUrl + API_PREFIX));
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> importBookings(long userId, byte[] rows) {
+        return postNdjson("/import", userId, rows);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approveBooking(long ownerId, long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(long ownerId, long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved.toString()
         );
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
     }
 
-    public ResponseEntity<Object> getUserBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getUserBookings(long userId, BookingState state, Integer from, Integer size,
+                                                       String after) {
+        Map<String, Object> parameters = pageParameters(from, size, after);
+        parameters.put("state", state.name());
+        return get("?state={state}&" + pageQuery(after), userId, parameters);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getOwnerBookings(long userId, BookingState state, Integer from, Integer size,
+                                                        String after) {
+        Map<String, Object> parameters = pageParameters(from, size, after);
+        parameters.put("state", state.name());
+        return get("/owner?state={state}&" + pageQuery(after), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> exportUserBookings(long userId, BookingState state) {
+        return getNdjson("/export?state={state}", userId, Map.of("state", state.name()));
+    }
+
+    public Mono<ResponseEntity<Object>> exportOwnerBookings(long userId, BookingState state) {
+        return getNdjson("/owner/export?state={state}", userId, Map.of("state", state.name()));
     }
 }
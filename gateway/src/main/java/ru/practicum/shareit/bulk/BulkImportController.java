@@ -0,0 +1,55 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * NDJSON bulk imports. The upload is read on the request thread while the report is written,
+ * an upload can easily outlive the async request timeout.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportController {
+    private final NdjsonImportForwarder importForwarder;
+    private final UserClient userClient;
+    private final ItemClient itemClient;
+    private final BookingClient bookingClient;
+
+    @PostMapping(value = "/users/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("import users");
+        importForwarder.forward(request, response, UserDto.class, userClient::importUsers);
+    }
+
+    @PostMapping(value = "/items/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.info("import items, ownerId={}", ownerId);
+        importForwarder.forward(request, response, ItemDto.class, rows -> itemClient.importItems(ownerId, rows));
+    }
+
+    @PostMapping(value = "/bookings/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        log.info("import bookings, userId={}", userId);
+        importForwarder.forward(request, response, BookItemRequestDto.class,
+                rows -> bookingClient.importBookings(userId, rows));
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportFailure {
+    private long line;
+    private String error;
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.GatewayResponses;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validates an NDJSON upload row by row with the DTO constraints and sends the valid rows to the server
+ * in chunks, one call per chunk, so the gateway holds one chunk whatever the upload size.
+ * Rejected rows and the server failures are reported by their line in the upload, then the summary.
+ */
+@Component
+public class NdjsonImportForwarder {
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public NdjsonImportForwarder(ObjectMapper objectMapper, Validator validator,
+                                 @Value("${shareit-gateway.import.chunk-size:200}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> void forward(HttpServletRequest request, HttpServletResponse response, Class<T> type,
+                            Function<byte[], Mono<ResponseEntity<Object>>> server) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        forward(request.getInputStream(), response.getOutputStream(), type, server);
+    }
+
+    public <T> ImportSummary forward(InputStream body, OutputStream report, Class<T> type,
+                                     Function<byte[], Mono<ResponseEntity<Object>>> server) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        long[] chunkLines = new long[chunkSize];
+        int chunkRows = 0;
+        long imported = 0;
+        long failed = 0;
+        long lineNumber = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            T row;
+            try {
+                row = objectMapper.readValue(line, type);
+            } catch (JsonProcessingException e) {
+                failed++;
+                write(report, new ImportFailure(lineNumber, "Malformed row: " + e.getOriginalMessage()));
+                continue;
+            }
+
+            Set<ConstraintViolation<T>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                failed++;
+                write(report, new ImportFailure(lineNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+                continue;
+            }
+
+            chunk.write(objectMapper.writeValueAsBytes(row));
+            chunk.write(NEW_LINE);
+            chunkLines[chunkRows++] = lineNumber;
+
+            if (chunkRows == chunkSize) {
+                long chunkFailed = sendChunk(chunk.toByteArray(), chunkLines, chunkRows, server, report);
+                imported += chunkRows - chunkFailed;
+                failed += chunkFailed;
+                chunk.reset();
+                chunkRows = 0;
+            }
+        }
+
+        if (chunkRows > 0) {
+            long chunkFailed = sendChunk(chunk.toByteArray(), chunkLines, chunkRows, server, report);
+            imported += chunkRows - chunkFailed;
+            failed += chunkFailed;
+        }
+
+        ImportSummary summary = new ImportSummary(imported, failed);
+        write(report, summary);
+        report.flush();
+        return summary;
+    }
+
+    /**
+     * The server numbers the rows of a chunk from one, they are mapped back to the upload lines.
+     * A chunk the server did not take at all fails each of its rows, the upload goes on with the next chunk.
+     */
+    private long sendChunk(byte[] rows, long[] lines, int count,
+                           Function<byte[], Mono<ResponseEntity<Object>>> server,
+                           OutputStream report) throws IOException {
+        ResponseEntity<Object> response;
+        try {
+            response = server.apply(rows).block();
+        } catch (RuntimeException e) {
+            return failChunk(lines, count, "Server call failed: " + e.getMessage(), report);
+        }
+
+        byte[] body = GatewayResponses.readBody(response.getBody());
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return failChunk(lines, count, "Server rejected the rows with status " + response.getStatusCodeValue(),
+                    report);
+        }
+
+        long failed = 0;
+        for (String resultLine : new String(body, StandardCharsets.UTF_8).split("\n")) {
+            if (resultLine.isBlank()) {
+                continue;
+            }
+            JsonNode result = objectMapper.readTree(resultLine);
+            if (result.has("line")) {
+                long line = lines[result.get("line").asInt() - 1];
+                write(report, new ImportFailure(line, result.path("error").asText()));
+                failed++;
+            }
+        }
+        report.flush();
+        return failed;
+    }
+
+    private long failChunk(long[] lines, int count, String error, OutputStream report) throws IOException {
+        for (int i = 0; i < count; i++) {
+            write(report, new ImportFailure(lines[i], error));
+        }
+        report.flush();
+        return count;
+    }
+
+    private void write(OutputStream report, Object value) throws IOException {
+        report.write(objectMapper.writeValueAsBytes(value));
+        report.write(NEW_LINE);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+/**
+ * A successful server answer kept by {@link ResponseCache}, the body is held as bytes.
+ */
+@Getter
+class CachedResponse {
+    private final String path;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    @Nullable
+    private final String etag;
+    private final long storedAtNanos;
+
+    CachedResponse(String path, HttpHeaders headers, byte[] body, long storedAtNanos) {
+        this.path = path;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.etag = headers.getETag();
+        this.storedAtNanos = storedAtNanos;
+    }
+
+    CachedResponse revalidatedAt(long nanos) {
+        return new CachedResponse(path, headers, body, nanos);
+    }
+
+    ResponseEntity<Object> toResponse() {
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.UriComponents;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Serves cacheable GETs from {@link ResponseCache} and applies the invalidations that come back with mutations.
+ */
+class CachingServerTransport implements ServerTransport {
+    private final String basePath;
+    private final ServerTransport delegate;
+    private final ResponseCache cache;
+
+    CachingServerTransport(String basePath, ServerTransport delegate, ResponseCache cache) {
+        this.basePath = basePath;
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters,
+                                                 HttpEntity<?> requestEntity) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, parameters, requestEntity)
+                    .map(cache::applyInvalidations);
+        }
+
+        UriComponents uri = ServerRequests.uriOf(basePath, path, parameters);
+        String resourcePath = uri.getPath();
+        if (resourcePath == null || !cache.isCacheable(resourcePath) || ServerRequests.isStreamed(requestEntity)) {
+            return delegate.exchange(method, path, parameters, requestEntity);
+        }
+
+        String key = ServerRequests.keyOf(uri, requestEntity);
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cache.isFresh(cached)) {
+            return Mono.just(cached.toResponse());
+        }
+        CachedResponse stale = cached != null && cached.getEtag() != null ? cached : null;
+        HttpEntity<?> request = stale != null ? revalidation(requestEntity, stale.getEtag()) : requestEntity;
+        return delegate.exchange(method, path, parameters, request)
+                .map(response -> cache.store(key, resourcePath, stale, response));
+    }
+
+    private static HttpEntity<?> revalidation(HttpEntity<?> requestEntity, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(requestEntity.getHeaders());
+        headers.setIfNoneMatch(etag);
+        return new HttpEntity<>(requestEntity.getBody(), headers);
+    }
+}
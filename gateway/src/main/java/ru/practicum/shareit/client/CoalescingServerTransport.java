@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Lets identical concurrent GETs share one server call through {@link RequestCoalescer}.
+ * Other methods are not idempotent and always go to the server, streamed exports are not buffered for sharing.
+ */
+class CoalescingServerTransport implements ServerTransport {
+    private final String basePath;
+    private final ServerTransport delegate;
+    private final RequestCoalescer coalescer;
+
+    CoalescingServerTransport(String basePath, ServerTransport delegate, RequestCoalescer coalescer) {
+        this.basePath = basePath;
+        this.delegate = delegate;
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters,
+                                                 HttpEntity<?> requestEntity) {
+        if (method != HttpMethod.GET || ServerRequests.isStreamed(requestEntity)) {
+            return delegate.exchange(method, path, parameters, requestEntity);
+        }
+
+        // a revalidation must not share a 304 with a caller that has nothing cached
+        String key = ServerRequests.keyOf(ServerRequests.uriOf(basePath, path, parameters), requestEntity)
+                + " " + requestEntity.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        return coalescer.coalesce(key, () -> delegate.exchange(method, path, parameters, requestEntity));
+    }
+}
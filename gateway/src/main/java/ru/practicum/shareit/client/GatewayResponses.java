@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public final class GatewayResponses {
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE);
+
+    private GatewayResponses() {
+    }
+
+    /**
+     * Successful responses keep the server headers except hop-by-hop ones,
+     * errors keep only the status, the content type and the body.
+     */
+    static ResponseEntity<Object> of(int status, HttpHeaders serverHeaders, @Nullable Object body) {
+        if (HttpStatus.Series.resolve(status) == HttpStatus.Series.SUCCESSFUL) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(serverHeaders);
+            HOP_BY_HOP_HEADERS.forEach(headers::remove);
+            return ResponseEntity.status(status).headers(headers).body(body);
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        MediaType contentType = serverHeaders.getContentType();
+        if (contentType != null) {
+            responseBuilder.contentType(contentType);
+        }
+        return responseBuilder.body(body);
+    }
+
+    /**
+     * Reads a passed-through body into memory, closing the server stream behind it.
+     */
+    public static byte[] readBody(@Nullable Object body) {
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body instanceof Resource) {
+            try (InputStream in = ((Resource) body).getInputStream()) {
+                return StreamUtils.copyToByteArray(in);
+            } catch (IOException e) {
+                throw new ResourceAccessException("I/O error on reading server response: " + e.getMessage(), e);
+            }
+        }
+        return new byte[0];
+    }
+}
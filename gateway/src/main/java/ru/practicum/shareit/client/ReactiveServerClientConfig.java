@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.admission.ConcurrencyLimiter;
+import ru.practicum.shareit.resilience.ClientIsolation;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking alternative to {@link ServerHttpClientConfig}, enabled with shareit-server.transport=reactive.
+ * Uses the same pool settings; pool gauges are exported as reactor.netty.connection.provider.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.transport", havingValue = "reactive")
+public class ReactiveServerClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(
+            @Value("${shareit-server.pool.max-per-route}") int maxPerRoute,
+            @Value("${shareit-server.pool.acquire-timeout}") Duration acquireTimeout,
+            @Value("${shareit-server.pool.keep-alive}") Duration keepAlive) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxPerRoute)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(acquireTimeout)
+                .maxIdleTime(keepAlive)
+                .evictInBackground(keepAlive)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector serverConnector(
+            ConnectionProvider serverConnectionProvider,
+            @Value("${shareit-server.pool.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.pool.read-timeout}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                .responseTimeout(readTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Bean
+    public ServerTransportFactory serverTransportFactory(WebClient.Builder webClientBuilder,
+                                                         ClientHttpConnector serverConnector,
+                                                         ResponseCache responseCache,
+                                                         RequestCoalescer requestCoalescer,
+                                                         ConcurrencyLimiter concurrencyLimiter,
+                                                         ClientIsolation clientIsolation) {
+        return baseUrl -> {
+            ServerTransport transport = new WebClientServerTransport(webClientBuilder.clone()
+                    .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                    .clientConnector(serverConnector)
+                    .build());
+            return ServerHttpClientConfig.decorate(baseUrl, transport, responseCache, requestCoalescer,
+                    clientIsolation, concurrencyLimiter);
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical concurrent reads: the first caller sends the request, callers arriving while
+ * it is in flight wait for the same answer. The answer is read into memory once and copied to every waiter.
+ * When max-in-flight distinct reads are pending, new ones are sent on their own instead of being tracked.
+ */
+@Component
+public class RequestCoalescer implements MeterBinder {
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final Map<String, Mono<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public RequestCoalescer(@Value("${shareit-gateway.coalescing.enabled}") boolean enabled,
+                            @Value("${shareit-gateway.coalescing.max-in-flight}") int maxInFlight) {
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public ServerTransport decorate(String baseUrl, ServerTransport transport) {
+        return enabled ? new CoalescingServerTransport(URI.create(baseUrl).getPath(), transport, this)
+                : transport;
+    }
+
+    Mono<ResponseEntity<Object>> coalesce(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        if (inFlight.size() >= maxInFlight && !inFlight.containsKey(key)) {
+            bypassed.increment();
+            return call.get();
+        }
+
+        boolean[] leader = {false};
+        Mono<SharedResponse> shared = inFlight.computeIfAbsent(key, k -> {
+            leader[0] = true;
+            return share(k, call);
+        });
+        (leader[0] ? leaders : followers).increment();
+        return shared.map(SharedResponse::toResponse);
+    }
+
+    /**
+     * The upstream call starts with the first subscriber, is not cancelled when a waiter goes away
+     * and leaves the map as soon as it completes, so later reads go to the server again.
+     */
+    private Mono<SharedResponse> share(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        AtomicReference<Mono<SharedResponse>> self = new AtomicReference<>();
+        Mono<SharedResponse> shared = Mono.defer(call)
+                .map(SharedResponse::of)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    double coalescingRatio() {
+        long total = leaders.sum() + followers.sum() + bypassed.sum();
+        return total == 0 ? 0 : (double) followers.sum() / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.coalescing.requests", leaders, LongAdder::sum)
+                .tag("role", "leader")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.requests", followers, LongAdder::sum)
+                .tag("role", "follower")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.requests", bypassed, LongAdder::sum)
+                .tag("role", "bypassed")
+                .register(registry);
+        Gauge.builder("gateway.coalescing.in.flight", this, RequestCoalescer::inFlight)
+                .register(registry);
+        Gauge.builder("gateway.coalescing.ratio", this, RequestCoalescer::coalescingRatio)
+                .register(registry);
+    }
+
+    private static class SharedResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private SharedResponse(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        static SharedResponse of(ResponseEntity<Object> response) {
+            return new SharedResponse(response.getStatusCodeValue(),
+                    HttpHeaders.readOnlyHttpHeaders(response.getHeaders()),
+                    GatewayResponses.readBody(response.getBody()));
+        }
+
+        ResponseEntity<Object> toResponse() {
+            return ResponseEntity.status(status).headers(headers).body(body);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived copies of hot single-resource answers, keyed by user, path and query.
+ * An entry is served as is for the TTL, after that it is revalidated with the server ETag
+ * until max-stale. Mutations name the paths they made stale in the X-Cache-Invalidate header.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+    static final String INVALIDATE_HEADER = "X-Cache-Invalidate";
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final List<String> paths;
+    private final Ticker ticker;
+    private final Cache<String, CachedResponse> entries;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder modified = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+
+    @Autowired
+    public ResponseCache(@Value("${shareit-gateway.cache.enabled}") boolean enabled,
+                         @Value("${shareit-gateway.cache.ttl}") Duration ttl,
+                         @Value("${shareit-gateway.cache.max-stale}") Duration maxStale,
+                         @Value("${shareit-gateway.cache.maximum-size}") long maximumSize,
+                         @Value("${shareit-gateway.cache.paths}") String[] paths) {
+        this(enabled, ttl, maxStale, maximumSize, List.of(paths), Ticker.systemTicker());
+    }
+
+    ResponseCache(boolean enabled, Duration ttl, Duration maxStale, long maximumSize, List<String> paths,
+                  Ticker ticker) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.paths = paths;
+        this.ticker = ticker;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxStale)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public ServerTransport decorate(String baseUrl, ServerTransport transport) {
+        return new CachingServerTransport(URI.create(baseUrl).getPath(), transport, this);
+    }
+
+    boolean isCacheable(String path) {
+        return enabled && paths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Nullable
+    CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    boolean isFresh(CachedResponse cached) {
+        return ticker.read() - cached.getStoredAtNanos() < ttlNanos;
+    }
+
+    /**
+     * Keeps a successful answer, or serves the stale entry again when the server confirmed it with 304.
+     */
+    ResponseEntity<Object> store(String key, String path, @Nullable CachedResponse stale,
+                                 ResponseEntity<Object> response) {
+        if (stale != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            GatewayResponses.readBody(response.getBody());
+            notModified.increment();
+            CachedResponse revalidated = stale.revalidatedAt(ticker.read());
+            entries.put(key, revalidated);
+            return revalidated.toResponse();
+        }
+        if (stale != null) {
+            modified.increment();
+        }
+        if (response.getStatusCode() != HttpStatus.OK) {
+            entries.invalidate(key);
+            return response;
+        }
+
+        CachedResponse cached = new CachedResponse(path, response.getHeaders(),
+                GatewayResponses.readBody(response.getBody()), ticker.read());
+        entries.put(key, cached);
+        return cached.toResponse();
+    }
+
+    /**
+     * Drops every entry under the paths a mutation reported, for all users and queries,
+     * and hides the header from the gateway client. A mutation scans the whole cache, which is cheap
+     * next to the server round trip at the configured size.
+     */
+    ResponseEntity<Object> applyInvalidations(ResponseEntity<Object> response) {
+        List<String> stalePaths = response.getHeaders().get(INVALIDATE_HEADER);
+        if (stalePaths == null) {
+            return response;
+        }
+        entries.asMap().values().removeIf(cached -> stalePaths.stream()
+                .anyMatch(stalePath -> covers(stalePath, cached.getPath())));
+        invalidated.increment();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(INVALIDATE_HEADER);
+        return ResponseEntity.status(response.getStatusCodeValue()).headers(headers).body(response.getBody());
+    }
+
+    private static boolean covers(String stalePath, String path) {
+        return path.equals(stalePath) || path.startsWith(stalePath.endsWith("/") ? stalePath : stalePath + "/");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "gateway-responses");
+        FunctionCounter.builder("gateway.response.cache.revalidations", notModified, LongAdder::sum)
+                .tag("result", "not_modified")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.revalidations", modified, LongAdder::sum)
+                .tag("result", "modified")
+                .register(registry);
+        FunctionCounter.builder("gateway.response.cache.invalidations", invalidated, LongAdder::sum)
+                .register(registry);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Blocking transport: by default the call runs on the servlet thread that subscribes, which stays busy
+ * for the whole server round trip. With a scheduler, for example one on virtual threads, the call
+ * is moved there and the servlet thread is released.
+ */
+public class RestTemplateServerTransport implements ServerTransport {
+    private final RestTemplate rest;
+    private final Scheduler scheduler;
+
+    public RestTemplateServerTransport(RestTemplate rest) {
+        this(rest, Schedulers.immediate());
+    }
+
+    public RestTemplateServerTransport(RestTemplate rest, Scheduler scheduler) {
+        this.rest = rest;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters,
+                                                 HttpEntity<?> requestEntity) {
+        return Mono.fromCallable(() -> send(method, path, parameters, requestEntity))
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Sends the request and passes the server response through without building an object tree:
+     * the body stays an open stream that is copied straight into the gateway response,
+     * which also releases the pooled connection once the copy is done.
+     */
+    private ResponseEntity<Object> send(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                        HttpEntity<?> requestEntity) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+
+        ClientHttpResponse shareitServerResponse;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            shareitServerResponse = request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                    + e.getMessage(), e);
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ClientHttpResponse response) {
+        try {
+            return GatewayResponses.of(response.getRawStatusCode(), response.getHeaders(),
+                    new InputStreamResource(new ResponseBodyStream(response)));
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on reading server response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Body stream that closes the whole server response, so the connection goes back to the pool
+     * as soon as the gateway has copied the body or given up on it.
+     */
+    private static class ResponseBodyStream extends FilterInputStream {
+        private final ClientHttpResponse response;
+
+        ResponseBodyStream(ClientHttpResponse response) throws IOException {
+            super(response.getBody());
+            this.response = response;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
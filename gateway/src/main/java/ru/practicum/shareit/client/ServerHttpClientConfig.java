@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.admission.ConcurrencyLimiter;
+import ru.practicum.shareit.resilience.ClientIsolation;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pooled keep-alive transport shared by all gateway clients, they all talk to the same server route.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.transport", havingValue = "blocking", matchIfMissing = true)
+public class ServerHttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager serverConnectionManager(
+            @Value("${shareit-server.url}") String serverUrl,
+            @Value("${shareit-server.pool.max-total}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route}") int maxPerRoute,
+            @Value("${shareit-server.pool.validate-after-inactivity}") Duration validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setMaxPerRoute(new HttpRoute(HttpHost.create(serverUrl)), maxPerRoute);
+        connectionManager.setValidateAfterInactivity(Math.toIntExact(validateAfterInactivity.toMillis()));
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient serverHttpClient(
+            PoolingHttpClientConnectionManager serverConnectionManager,
+            @Value("${shareit-server.pool.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.pool.read-timeout}") Duration readTimeout,
+            @Value("${shareit-server.pool.acquire-timeout}") Duration acquireTimeout,
+            @Value("${shareit-server.pool.keep-alive}") Duration keepAlive) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()))
+                .setSocketTimeout(Math.toIntExact(readTimeout.toMillis()))
+                .setConnectionRequestTimeout(Math.toIntExact(acquireTimeout.toMillis()))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(keepAlive.toMillis()))
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive.toMillis(), TimeUnit.MILLISECONDS)
+                .disableCookieManagement()
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory serverRequestFactory(CloseableHttpClient serverHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+    }
+
+    @Bean
+    public ServerTransportFactory serverTransportFactory(RestTemplateBuilder builder,
+                                                         ClientHttpRequestFactory serverRequestFactory,
+                                                         ObjectProvider<ExecutorService> virtualThreadExecutor,
+                                                         ResponseCache responseCache,
+                                                         RequestCoalescer requestCoalescer,
+                                                         ConcurrencyLimiter concurrencyLimiter,
+                                                         ClientIsolation clientIsolation) {
+        ExecutorService executor = virtualThreadExecutor.getIfAvailable();
+        Scheduler scheduler = executor != null
+                ? Schedulers.fromExecutorService(executor, "shareit-server-virtual")
+                : Schedulers.immediate();
+
+        return baseUrl -> {
+            ServerTransport transport = new RestTemplateServerTransport(builder
+                    .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                    .requestFactory(() -> serverRequestFactory)
+                    .build(), scheduler);
+            return decorate(baseUrl, transport, responseCache, requestCoalescer, clientIsolation, concurrencyLimiter);
+        };
+    }
+
+    /**
+     * Outermost first: cache hits and coalesced reads never reach the isolation and admission layers,
+     * a call refused by an open circuit or a full bulkhead does not take a concurrency slot.
+     */
+    static ServerTransport decorate(String baseUrl, ServerTransport transport, ResponseCache responseCache,
+                                    RequestCoalescer requestCoalescer, ClientIsolation clientIsolation,
+                                    ConcurrencyLimiter concurrencyLimiter) {
+        return responseCache.decorate(baseUrl,
+                requestCoalescer.decorate(baseUrl,
+                        clientIsolation.decorate(baseUrl,
+                                concurrencyLimiter.decorate(transport))));
+    }
+
+    @Bean
+    public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, "shareit-server");
+    }
+
+    /**
+     * Honours the server Keep-Alive header but never keeps a connection longer than the configured limit,
+     * the server does not send the header at all, so without the limit idle connections would live forever.
+     */
+    static ConnectionKeepAliveStrategy keepAliveStrategy(long maxKeepAliveMillis) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, maxKeepAliveMillis) : maxKeepAliveMillis;
+        };
+    }
+}
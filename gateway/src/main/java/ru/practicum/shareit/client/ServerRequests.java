@@ -0,0 +1,38 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+final class ServerRequests {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private ServerRequests() {
+    }
+
+    /**
+     * The server path of a client call with the query parameters filled in.
+     */
+    static UriComponents uriOf(String basePath, String path, @Nullable Map<String, Object> parameters) {
+        return UriComponentsBuilder.fromUriString(basePath + path)
+                .buildAndExpand(parameters != null ? parameters : Map.of());
+    }
+
+    /**
+     * Identifies a read: the same path and query can answer differently for different users.
+     */
+    static String keyOf(UriComponents uri, HttpEntity<?> requestEntity) {
+        return requestEntity.getHeaders().getFirst(USER_HEADER) + " " + uri.toUriString();
+    }
+
+    /**
+     * An export asks for NDJSON: its body is forwarded as it arrives and must never be held in memory whole.
+     */
+    static boolean isStreamed(HttpEntity<?> requestEntity) {
+        return requestEntity.getHeaders().getAccept().contains(MediaType.APPLICATION_NDJSON);
+    }
+}
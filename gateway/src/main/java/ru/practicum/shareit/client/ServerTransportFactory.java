@@ -0,0 +1,8 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Creates a transport for one server API prefix, the implementation is chosen by shareit-server.transport.
+ */
+public interface ServerTransportFactory {
+    ServerTransport create(String baseUrl);
+}
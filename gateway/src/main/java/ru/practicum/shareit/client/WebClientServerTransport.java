@@ -0,0 +1,86 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Map;
+
+/**
+ * Non-blocking transport: the servlet thread is released while the server answers.
+ * The body is kept as raw bytes, Spring MVC cannot write a DataBuffer stream as a plain JSON body.
+ * Streamed exports are the exception, their body is piped to the servlet thread buffer by buffer.
+ */
+public class WebClientServerTransport implements ServerTransport {
+    private static final int PIPE_SIZE = 64 * 1024;
+
+    private final WebClient webClient;
+
+    public WebClientServerTransport(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters,
+                                                 HttpEntity<?> requestEntity) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(requestEntity.getHeaders()));
+        WebClient.RequestHeadersSpec<?> requestWithBody = requestEntity.getBody() != null
+                ? request.bodyValue(requestEntity.getBody())
+                : request;
+
+        if (ServerRequests.isStreamed(requestEntity)) {
+            return requestWithBody.exchangeToMono(response -> Mono.just(GatewayResponses.of(
+                    response.rawStatusCode(), response.headers().asHttpHeaders(), pipe(response))));
+        }
+        return requestWithBody.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> GatewayResponses.of(response.getStatusCodeValue(), response.getHeaders(),
+                        response.getBody()));
+    }
+
+    /**
+     * The pipe blocks the writer until the servlet thread has read, so the connection is drained only as fast
+     * as the client takes the rows and at most the pipe plus one network buffer is held. When the client goes
+     * away the servlet closes the reading end, the next write fails and the server connection is released.
+     */
+    private static InputStreamResource pipe(ClientResponse response) {
+        PipedInputStream in = new PipedInputStream(PIPE_SIZE);
+        PipedOutputStream out;
+        try {
+            out = new PipedOutputStream(in);
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on piping server response: " + e.getMessage(), e);
+        }
+
+        Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class)
+                .publishOn(Schedulers.boundedElastic());
+        DataBufferUtils.write(body, out)
+                .doFinally(signal -> closeQuietly(out))
+                .subscribe(DataBufferUtils.releaseConsumer(), error -> {
+                });
+        return new InputStreamResource(in);
+    }
+
+    private static void closeQuietly(PipedOutputStream out) {
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // the reading end is gone already
+        }
+    }
+}
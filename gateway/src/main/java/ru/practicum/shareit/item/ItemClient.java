@@ -2,15 +2,15 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -18,45 +18,50 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transports) {
+        super(transports.create(serverUrl + API_PREFIX));
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long itemId, Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> importItems(Long userId, byte[] rows) {
+        return postNdjson("/import", userId, rows);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(Long itemId, Long userId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(Long itemId, Long userId) {
+    public Mono<ResponseEntity<Object>> getItem(Long itemId, Long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(Long userId, Long from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getItemsByOwner(Long userId, Long from, Integer size, String after) {
+        return get("?" + pageQuery(after), userId, pageParameters(from, size, after));
+    }
+
+    public Mono<ResponseEntity<Object>> exportItems(Long userId) {
+        return getNdjson("/export", userId, null);
+    }
+
+    public Mono<ResponseEntity<Object>> search(Long userId, String text, Long from, Integer size, String after) {
+        Map<String, Object> parameters = pageParameters(from, size, after);
+        parameters.put("text", text);
+        return get("/search?text={text}&" + pageQuery(after), userId, parameters);
     }
 
-    public ResponseEntity<Object> search(Long userId, String text, Long from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAvailability(Long itemId, Long userId,
+                                                        LocalDateTime from, LocalDateTime to) {
         Map<String, Object> parameters = Map.of(
-                "text", text,
                 "from", from,
-                "size", size
+                "to", to
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(Long itemId, Long userId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(Long itemId, Long userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
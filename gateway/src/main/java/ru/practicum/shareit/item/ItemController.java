@@ -2,16 +2,19 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -22,14 +25,14 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addNewItem(@Valid @RequestBody @NotNull ItemDto itemDto,
-                                             @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+    public Mono<ResponseEntity<Object>> addNewItem(@Valid @RequestBody @NotNull ItemDto itemDto,
+                                                  @RequestHeader("X-Sharer-User-Id") Long ownerId) {
         log.info("save new item = {}", itemDto);
         return itemClient.addItem(ownerId, itemDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(
+    public Mono<ResponseEntity<Object>> updateItem(
             @PathVariable("id") Long id,
             @RequestBody @NotNull ItemDto itemDto,
             @RequestHeader("X-Sharer-User-Id") Long ownerId) {
@@ -38,37 +41,59 @@ public class ItemController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItem(@PathVariable("id") Long id,
-                                          @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getItem(@PathVariable("id") Long id,
+                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("get item with id = {} from user with id = {}", id, userId);
         return itemClient.getItem(id, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwner(
+    public Mono<ResponseEntity<Object>> getItemsByOwner(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
             @RequestParam(name = "from", required = false, defaultValue = "0") @Min(value = 0) Long from,
-            @RequestParam(name = "size", required = false, defaultValue = "10") @Min(value = 1) Integer size
+            @RequestParam(name = "size", required = false, defaultValue = "10") @Min(value = 1) Integer size,
+            @RequestParam(name = "after", required = false) String after
     ) {
         log.info("get items with owner id = {}", ownerId);
-        return itemClient.getItemsByOwner(ownerId, from, size);
+        return itemClient.getItemsByOwner(ownerId, from, size, after);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Object>> exportItems(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        log.info("export items with owner id = {}", ownerId);
+        return itemClient.exportItems(ownerId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(
+    public Mono<ResponseEntity<Object>> search(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(name = "text") String text,
             @RequestParam(name = "from", required = false, defaultValue = "0") @Min(value = 0) Long from,
-            @RequestParam(name = "size", required = false, defaultValue = "10") @Min(value = 1) Integer size
+            @RequestParam(name = "size", required = false, defaultValue = "10") @Min(value = 1) Integer size,
+            @RequestParam(name = "after", required = false) String after
     ) {
         log.info("search items name or desc contains = {}", text);
-        return itemClient.search(userId, text, from, size);
+        return itemClient.search(userId, text, from, size, after);
+    }
+
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+            @PathVariable("id") Long id,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("From must be before to.");
+        }
+        log.info("get availability of item with id = {} from {} to {}", id, from, to);
+        return itemClient.getAvailability(id, userId, from, to);
     }
 
     @PostMapping("/{id}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable("id") Long id,
-                                             @RequestHeader("X-Sharer-User-Id") Long authorId,
-                                             @Valid @RequestBody @NotNull CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(@PathVariable("id") Long id,
+                                                  @RequestHeader("X-Sharer-User-Id") Long authorId,
+                                                  @Valid @RequestBody @NotNull CommentDto commentDto) {
         return itemClient.addComment(id, authorId, commentDto);
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -22,30 +23,31 @@ public class RequestController {
     private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> addNewRequest(@Valid @RequestBody @NotNull ItemRequestDto itemRequestDto,
-                                                @RequestHeader(X_SHARER_USER_ID) Long requestorId) {
+    public Mono<ResponseEntity<Object>> addNewRequest(@Valid @RequestBody @NotNull ItemRequestDto itemRequestDto,
+                                                     @RequestHeader(X_SHARER_USER_ID) Long requestorId) {
         log.info("create new item request = {} by user with id = {}", itemRequestDto, requestorId);
         return requestClient.addNewRequest(requestorId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsersRequests(@RequestHeader(X_SHARER_USER_ID) Long requestorId) {
+    public Mono<ResponseEntity<Object>> getUsersRequests(@RequestHeader(X_SHARER_USER_ID) Long requestorId) {
         log.info("get all requests of user with id = {}", requestorId);
         return requestClient.getUsersRequests(requestorId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(
+    public Mono<ResponseEntity<Object>> getAllRequests(
             @RequestHeader(X_SHARER_USER_ID) Long userId,
             @RequestParam(name = "from", required = false, defaultValue = "0") @Min(value = 0) Long from,
-            @RequestParam(name = "size", required = false, defaultValue = "10") @Min(value = 1) Integer size) {
+            @RequestParam(name = "size", required = false, defaultValue = "10") @Min(value = 1) Integer size,
+            @RequestParam(name = "after", required = false) String after) {
         log.info("get all requests from id = {} page size = {}", from, size);
-        return requestClient.getAllRequests(userId, from, size);
+        return requestClient.getAllRequests(userId, from, size, after);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader(X_SHARER_USER_ID) Long requestorId,
-                                                 @PathVariable("requestId") Long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader(X_SHARER_USER_ID) Long requestorId,
+                                                      @PathVariable("requestId") Long requestId) {
         log.info("get request with id = {}", requestId);
         return requestClient.getRequestById(requestId, requestorId);
     }
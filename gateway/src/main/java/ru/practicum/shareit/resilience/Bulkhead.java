@@ -0,0 +1,36 @@
+package ru.practicum.shareit.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the concurrent server calls of one client, so a slow endpoint cannot take the threads
+ * and connections the other clients need.
+ */
+class Bulkhead {
+    private final int maxConcurrent;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    Bulkhead(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
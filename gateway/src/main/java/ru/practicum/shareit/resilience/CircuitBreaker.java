@@ -0,0 +1,130 @@
+package ru.practicum.shareit.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for one client. Closed: calls pass and the last window-size outcomes
+ * are kept, once at least minimum-calls are known and the failure rate reaches the threshold the circuit opens.
+ * Open: calls fail fast until open-duration has passed. Half-open: a few trial calls pass, all of them
+ * must succeed to close the circuit again, a single failure opens it.
+ */
+class CircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+    private final TransitionListener listener;
+
+    private final boolean[] failures;
+    private int next;
+    private int recorded;
+    private int failed;
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openNanos, int halfOpenCalls,
+                   LongSupplier clock, TransitionListener listener) {
+        this.failures = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                halfOpenPermits = halfOpenCalls - 1;
+                halfOpenSuccesses = 0;
+                return true;
+            default:
+                if (halfOpenPermits > 0) {
+                    halfOpenPermits--;
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    synchronized void onResult(boolean failure) {
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        if (recorded == failures.length) {
+            failed -= failures[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        failed += failure ? 1 : 0;
+        next = (next + 1) % failures.length;
+
+        if (recorded >= minimumCalls && failed * 100 >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    /**
+     * A cancelled call tells nothing about the server, a half-open trial slot is handed back.
+     */
+    synchronized void onCancel() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    synchronized long remainingOpenNanos() {
+        return state == State.OPEN ? Math.max(0, openedAt + openNanos - clock.getAsLong()) : 0;
+    }
+
+    private void open() {
+        openedAt = clock.getAsLong();
+        transitionTo(State.OPEN);
+    }
+
+    private void close() {
+        next = 0;
+        recorded = 0;
+        failed = 0;
+        transitionTo(State.CLOSED);
+    }
+
+    private void transitionTo(State to) {
+        State from = state;
+        state = to;
+        listener.onTransition(from, to);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.resilience;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.LongSupplier;
+
+@RequiredArgsConstructor
+class CircuitBreakerSettings {
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    CircuitBreaker create(CircuitBreaker.TransitionListener listener) {
+        return new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openNanos, halfOpenCalls, clock,
+                listener);
+    }
+}
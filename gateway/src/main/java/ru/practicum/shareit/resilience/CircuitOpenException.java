@@ -0,0 +1,13 @@
+package ru.practicum.shareit.resilience;
+
+import lombok.Getter;
+
+@Getter
+public class CircuitOpenException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public CircuitOpenException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Gives every gateway client (bookings, items, users, requests) its own bulkhead and circuit breaker,
+ * so a slow or failing server endpoint is cut off without starving the other clients.
+ * Per client: gateway.circuit.state (0 closed, 1 open, 2 half-open), gateway.circuit.transitions by target state,
+ * gateway.circuit.rejected, gateway.bulkhead.in.flight and gateway.bulkhead.rejected.
+ */
+@Component
+public class ClientIsolation implements MeterBinder {
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final long slowCallNanos;
+    private final CircuitBreakerSettings circuitBreakerSettings;
+    private final List<IsolatedServerTransport> clients = new CopyOnWriteArrayList<>();
+    private volatile MeterRegistry registry;
+
+    @Autowired
+    public ClientIsolation(@Value("${shareit-gateway.isolation.enabled}") boolean enabled,
+                           @Value("${shareit-gateway.isolation.bulkhead.max-concurrent}") int maxConcurrent,
+                           @Value("${shareit-gateway.isolation.circuit-breaker.window-size}") int windowSize,
+                           @Value("${shareit-gateway.isolation.circuit-breaker.minimum-calls}") int minimumCalls,
+                           @Value("${shareit-gateway.isolation.circuit-breaker.failure-rate-threshold}")
+                           int failureRateThreshold,
+                           @Value("${shareit-gateway.isolation.circuit-breaker.slow-call-duration}")
+                           Duration slowCallDuration,
+                           @Value("${shareit-gateway.isolation.circuit-breaker.open-duration}") Duration openDuration,
+                           @Value("${shareit-gateway.isolation.circuit-breaker.half-open-calls}") int halfOpenCalls) {
+        this(enabled, maxConcurrent, slowCallDuration, new CircuitBreakerSettings(windowSize, minimumCalls,
+                failureRateThreshold, openDuration.toNanos(), halfOpenCalls, System::nanoTime));
+    }
+
+    ClientIsolation(boolean enabled, int maxConcurrent, Duration slowCallDuration,
+                    CircuitBreakerSettings circuitBreakerSettings) {
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.circuitBreakerSettings = circuitBreakerSettings;
+    }
+
+    public ServerTransport decorate(String baseUrl, ServerTransport transport) {
+        if (!enabled) {
+            return transport;
+        }
+        String client = URI.create(baseUrl).getPath().replaceFirst("^/", "");
+        IsolatedServerTransport isolated = new IsolatedServerTransport(client, transport, maxConcurrent,
+                slowCallNanos, circuitBreakerSettings);
+        clients.add(isolated);
+        MeterRegistry boundRegistry = registry;
+        if (boundRegistry != null) {
+            bind(isolated, boundRegistry);
+        }
+        return isolated;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        clients.forEach(client -> bind(client, registry));
+    }
+
+    private static void bind(IsolatedServerTransport client, MeterRegistry registry) {
+        Gauge.builder("gateway.circuit.state", client, c -> c.circuitBreaker().getState().ordinal())
+                .tag("client", client.client())
+                .register(registry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            FunctionCounter.builder("gateway.circuit.transitions", client, c -> c.transitionsTo(state))
+                    .tag("client", client.client())
+                    .tag("to", state.name().toLowerCase())
+                    .register(registry);
+        }
+        FunctionCounter.builder("gateway.circuit.rejected", client, IsolatedServerTransport::circuitRejected)
+                .tag("client", client.client())
+                .register(registry);
+        Gauge.builder("gateway.bulkhead.in.flight", client, c -> c.bulkhead().inFlight())
+                .tag("client", client.client())
+                .register(registry);
+        FunctionCounter.builder("gateway.bulkhead.rejected", client, IsolatedServerTransport::bulkheadRejected)
+                .tag("client", client.client())
+                .register(registry);
+    }
+}
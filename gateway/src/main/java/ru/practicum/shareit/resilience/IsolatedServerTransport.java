@@ -0,0 +1,123 @@
+package ru.practicum.shareit.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.admission.ServerOverloadedException;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server calls of one client: refused at once while its circuit is open or its bulkhead is full.
+ * A call fails the circuit when it ends with an error, a 5xx answer or takes longer than the slow-call duration.
+ * A call the concurrency limit refuses counts like a cancelled one: it says nothing about the server.
+ */
+@Slf4j
+class IsolatedServerTransport implements ServerTransport {
+    private final String client;
+    private final ServerTransport delegate;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final long slowCallNanos;
+    private final Map<CircuitBreaker.State, LongAdder> transitions = new EnumMap<>(CircuitBreaker.State.class);
+    private final LongAdder circuitRejected = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+
+    IsolatedServerTransport(String client, ServerTransport delegate, int maxConcurrent, long slowCallNanos,
+                            CircuitBreakerSettings settings) {
+        this.client = client;
+        this.delegate = delegate;
+        this.bulkhead = new Bulkhead(maxConcurrent);
+        this.slowCallNanos = slowCallNanos;
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            transitions.put(state, new LongAdder());
+        }
+        this.circuitBreaker = settings.create(this::onTransition);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters,
+                                                 HttpEntity<?> requestEntity) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                circuitRejected.increment();
+                long retryAfter = TimeUnit.NANOSECONDS.toSeconds(circuitBreaker.remainingOpenNanos()) + 1;
+                return Mono.error(new CircuitOpenException("Circuit of " + client + " client is open", retryAfter));
+            }
+            if (!bulkhead.tryAcquire()) {
+                bulkheadRejected.increment();
+                circuitBreaker.onCancel();
+                return Mono.error(new ServerOverloadedException("Bulkhead of " + client + " client is full"));
+            }
+
+            // released before the result is passed on, doFinally would run after the caller has it, and a call
+            // the caller makes next could still find the bulkhead full
+            long start = System.nanoTime();
+            AtomicBoolean done = new AtomicBoolean();
+            return delegate.exchange(method, path, parameters, requestEntity)
+                    .doOnSuccess(response -> finish(done, start,
+                            response != null && response.getStatusCode().is5xxServerError()))
+                    .doOnError(e -> {
+                        // a call refused by the concurrency limit below never reached the server
+                        if (e instanceof ServerOverloadedException) {
+                            abandon(done);
+                        } else {
+                            finish(done, start, true);
+                        }
+                    })
+                    .doOnCancel(() -> abandon(done));
+        });
+    }
+
+    private void abandon(AtomicBoolean done) {
+        if (done.compareAndSet(false, true)) {
+            bulkhead.release();
+            circuitBreaker.onCancel();
+        }
+    }
+
+    private void finish(AtomicBoolean done, long start, boolean failed) {
+        if (done.compareAndSet(false, true)) {
+            bulkhead.release();
+            circuitBreaker.onResult(failed || System.nanoTime() - start > slowCallNanos);
+        }
+    }
+
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        transitions.get(to).increment();
+        log.warn("Circuit of {} client: {} -> {}", client, from, to);
+    }
+
+    String client() {
+        return client;
+    }
+
+    CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    Bulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    long transitionsTo(CircuitBreaker.State state) {
+        return transitions.get(state).sum();
+    }
+
+    long circuitRejected() {
+        return circuitRejected.sum();
+    }
+
+    long bulkheadRejected() {
+        return bulkheadRejected.sum();
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.config.VirtualThreads;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Load comparison of the gateway transports and thread modes against a stub server with fixed latency.
+ * Run with: mvn -pl gateway test -Dtest=GatewayTransportBenchmarkTest -Dbenchmark=true
+ * Optional: -Dbenchmark.clients=1000 -Dbenchmark.latency-ms=100 -Dbenchmark.tomcat-threads=200
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GatewayTransportBenchmarkTest {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+    private static final int LATENCY_MS = Integer.getInteger("benchmark.latency-ms", 100);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcat-threads", 200);
+    private static final byte[] USER_JSON = "{\"id\":1,\"name\":\"user\",\"email\":\"user@email\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(CLIENTS);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), CLIENTS);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USER_JSON.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(USER_JSON);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void compareTransports_shouldServeAllClients_whenServerIsSlow() {
+        Result blocking = run(serverUrl(), "shareit-server.transport=blocking");
+        Result reactive = run(serverUrl(), "shareit-server.transport=reactive");
+
+        System.out.printf("clients=%d latency=%dms tomcat-threads=%d%n", CLIENTS, LATENCY_MS, TOMCAT_THREADS);
+        System.out.println("blocking: " + blocking);
+        System.out.println("reactive: " + reactive);
+        assertEquals(CLIENTS, blocking.ok);
+        assertEquals(CLIENTS, reactive.ok);
+    }
+
+    @Test
+    void compareThreadModes_shouldServeAllClients_whenServerIsSlow() {
+        assumeTrue(VirtualThreads.isSupported(), "virtual threads need Java 21, running on " + Runtime.version());
+
+        Result platform = run(serverUrl(), "shareit-server.transport=blocking", "shareit.threads.virtual=false");
+        Result virtual = run(serverUrl(), "shareit-server.transport=blocking", "shareit.threads.virtual=true");
+
+        System.out.printf("clients=%d latency=%dms tomcat-threads=%d java=%s cpus=%d%n", CLIENTS, LATENCY_MS,
+                TOMCAT_THREADS, Runtime.version(), Runtime.getRuntime().availableProcessors());
+        System.out.println("platform threads: " + platform);
+        System.out.println("virtual threads: " + virtual);
+        assertEquals(CLIENTS, platform.ok);
+        assertEquals(CLIENTS, virtual.ok);
+    }
+
+    private String serverUrl() {
+        return "shareit-server.url=http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Starts a gateway against the stub server with the given extra properties, warms it up and fires all clients
+     * at once. The properties go in as command line arguments, builder defaults would lose to application.properties.
+     */
+    static Result run(String serverUrl, String... properties) {
+        String[] args = Stream.concat(Stream.of("server.port=0",
+                                serverUrl,
+                                "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                                "shareit-server.pool.max-total=" + CLIENTS,
+                                "shareit-server.pool.max-per-route=" + CLIENTS,
+                                "shareit-server.pool.acquire-timeout=30s",
+                                "shareit-gateway.cache.enabled=false",
+                                "shareit-gateway.rate-limit.enabled=false",
+                                "shareit-gateway.concurrency.enabled=false",
+                                "shareit-gateway.isolation.enabled=false",
+                                "logging.level.root=WARN",
+                                "logging.level.org.springframework.web.client.RestTemplate=WARN"),
+                        Stream.of(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class).run(args);
+        try {
+            int port = gateway.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            fire(client, port, Math.min(CLIENTS, 50));
+            long start = System.nanoTime();
+            long ok = fire(client, port, CLIENTS);
+            return new Result(ok, Duration.ofNanos(System.nanoTime() - start));
+        } finally {
+            gateway.close();
+        }
+    }
+
+    private static long fire(HttpClient client, int port, int count) {
+        List<CompletableFuture<HttpResponse<Void>>> responses = IntStream.range(0, count)
+                .mapToObj(i -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/" + i))
+                        .timeout(Duration.ofMinutes(1))
+                        .build())
+                .map(request -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                .collect(Collectors.toList());
+
+        return responses.stream()
+                .map(CompletableFuture::join)
+                .filter(response -> response.statusCode() == 200)
+                .count();
+    }
+
+    static class Result {
+        final long ok;
+        final Duration elapsed;
+
+        Result(long ok, Duration elapsed) {
+            this.ok = ok;
+            this.elapsed = elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ok=%d elapsed=%dms throughput=%.0f req/s",
+                    ok, elapsed.toMillis(), ok * 1000.0 / Math.max(1, elapsed.toMillis()));
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -102,4 +103,15 @@ class ItemControllerTest {
                 .andExpect(status().isBadRequest());
         verify(itemClient, never()).addComment(any(), any(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability_whenFromNotBeforeTo_thenReturnStatusBadRequest() throws Exception {
+        mockMvc.perform(get("/items/{id}/availability", 1L)
+                        .param("from", "2030-01-02T10:00:00")
+                        .param("to", "2030-01-01T10:00:00")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+        verify(itemClient, never()).getAvailability(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserController.class)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "shareit-gateway.rate-limit.user.rate=0.01",
+        "shareit-gateway.rate-limit.user.burst=2"})
+class RateLimitTest {
+
+    @MockBean
+    private UserClient userClient;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void findUser_whenUserExceedsBurst_thenReturnStatusTooManyRequests() throws Exception {
+        when(userClient.findUser(anyLong())).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/users/1").header("X-Sharer-User-Id", 7L))
+                    .andExpect(request().asyncStarted());
+        }
+        mockMvc.perform(get("/users/1").header("X-Sharer-User-Id", 7L))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        verify(userClient, times(2)).findUser(1L);
+
+        mockMvc.perform(get("/users/1").header("X-Sharer-User-Id", 8L))
+                .andExpect(request().asyncStarted());
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 10, 2, 20, Duration.ofMillis(500), 0.5);
+
+    @Test
+    void tryAcquire_shouldRefuse_whenLimitReached() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        limiter.release(FAST, false, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_shouldCutLimit_whenCallIsSlowOrOverloaded() {
+        limiter.tryAcquire();
+        limiter.release(SLOW, false, false);
+        assertEquals(5, limiter.limit(), 1e-9);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true, false);
+        assertEquals(2.5, limiter.limit(), 1e-9);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true, false);
+        assertEquals(2, limiter.limit(), 1e-9);
+    }
+
+    @Test
+    void release_shouldGrowLimit_whenFastCallsUseIt() {
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.release(FAST, false, false);
+        }
+
+        assertTrue(limiter.limit() > 10);
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void release_shouldKeepLimit_whenCallCancelled() {
+        limiter.tryAcquire();
+        limiter.release(SLOW, true, true);
+
+        assertEquals(10, limiter.limit(), 1e-9);
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void exchange_shouldFailWithOverloaded_whenNoSlotLeft() {
+        ConcurrencyLimiter single = new ConcurrencyLimiter(true, 1, 1, 1, Duration.ofMillis(500), 0.5);
+        Sinks.One<ResponseEntity<Object>> pending = Sinks.one();
+        ServerTransport transport = single.decorate((method, path, parameters, entity) -> pending.asMono());
+
+        CompletableFuture<ResponseEntity<Object>> first = exchange(transport).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = exchange(transport).toFuture();
+
+        assertTrue(second.isCompletedExceptionally());
+        pending.tryEmitValue(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, first.join().getStatusCode());
+        assertEquals(0, single.inFlight());
+    }
+
+    @Test
+    void exchange_shouldFreeSlot_whenCallerChainsNextCall() {
+        ConcurrencyLimiter single = new ConcurrencyLimiter(true, 1, 1, 1, Duration.ofMillis(500), 0.5);
+        ServerTransport transport = single.decorate((method, path, parameters, entity) ->
+                Mono.just(ResponseEntity.ok().build()));
+
+        ResponseEntity<Object> next = exchange(transport)
+                .flatMap(first -> exchange(transport))
+                .block();
+
+        assertEquals(HttpStatus.OK, next.getStatusCode());
+        assertEquals(0, single.inFlight());
+    }
+
+    private static Mono<ResponseEntity<Object>> exchange(ServerTransport transport) {
+        return transport.exchange(HttpMethod.GET, "/1", null, HttpEntity.EMPTY);
+    }
+}
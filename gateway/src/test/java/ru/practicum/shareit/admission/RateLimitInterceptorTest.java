@@ -0,0 +1,34 @@
+package ru.practicum.shareit.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitInterceptorTest {
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(true, 0.01, 2, 0.01, 1, 4,
+            100, Duration.ofMinutes(10));
+
+    @Test
+    void preHandle_shouldNotChargeUser_whenRouteRefusesRequest() {
+        assertTrue(interceptor.preHandle(request("/users/{userId}"), new MockHttpServletResponse(), null));
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request("/users/{userId}"), new MockHttpServletResponse(), null));
+
+        assertTrue(interceptor.preHandle(request("/items/{itemId}"), new MockHttpServletResponse(), null));
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request("/requests/{requestId}"), new MockHttpServletResponse(), null));
+    }
+
+    private static MockHttpServletRequest request(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.addHeader("X-Sharer-User-Id", "7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
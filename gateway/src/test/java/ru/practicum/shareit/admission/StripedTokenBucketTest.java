@@ -0,0 +1,62 @@
+package ru.practicum.shareit.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedTokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_shouldGrantWholeBurstAcrossStripes_whenCalledAtOnce() {
+        StripedTokenBucket bucket = new StripedTokenBucket(10, 7, 4, 0);
+
+        for (int i = 0; i < 7; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        assertTrue(bucket.tryAcquire(0) > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldRefillAtWholeRate_whenTimePasses() {
+        StripedTokenBucket bucket = new StripedTokenBucket(8, 4, 4, 0);
+        while (bucket.tryAcquire(0) == 0) {
+            // drain the burst
+        }
+
+        int granted = 0;
+        while (bucket.tryAcquire(SECOND / 2) == 0) {
+            granted++;
+        }
+        assertEquals(4, granted);
+    }
+
+    @Test
+    void stripes_shouldNotExceedBurst_whenBurstIsSmall() {
+        assertEquals(2, new StripedTokenBucket(10, 2, 8, 0).stripes());
+    }
+
+    @Test
+    void tryAcquire_shouldGrantExactlyBurst_whenCalledConcurrently() {
+        StripedTokenBucket bucket = new StripedTokenBucket(1, 1000, 8, 0);
+        AtomicInteger granted = new AtomicInteger();
+
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(t -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(1000, granted.get());
+    }
+}
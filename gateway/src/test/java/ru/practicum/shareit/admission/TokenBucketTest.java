@@ -0,0 +1,76 @@
+package ru.practicum.shareit.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefuse_whenCalledAtOnce() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        assertEquals(SECOND / 10, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillAtRate_whenTimePasses() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(SECOND / 20) > 0);
+
+        assertEquals(0, bucket.tryAcquire(SECOND / 10));
+    }
+
+    @Test
+    void tryAcquire_shouldNotSaveUpMoreThanBurst_whenIdle() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        long later = 60 * SECOND;
+
+        int granted = 0;
+        while (bucket.tryAcquire(later) == 0) {
+            granted++;
+        }
+        assertEquals(3, granted);
+    }
+
+    @Test
+    void refund_shouldReturnTakenToken_whenRequestRefusedElsewhere() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+
+        bucket.refund();
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0) > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldGrantExactlyBurst_whenCalledConcurrently() {
+        TokenBucket bucket = new TokenBucket(1, 1000, 0);
+        AtomicInteger granted = new AtomicInteger();
+
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(t -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(1000, granted.get());
+    }
+}
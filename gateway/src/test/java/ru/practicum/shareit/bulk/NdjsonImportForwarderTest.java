@@ -0,0 +1,94 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonImportForwarderTest {
+    private static final String UPLOAD = "{\"name\":\"a\",\"email\":\"a@email\"}\n" +
+            "{\"name\":\"\",\"email\":\"blank@email\"}\n" +
+            "{\"name\":\"b\",\"email\":\"b@email\"}\n" +
+            "not json\n" +
+            "{\"name\":\"c\",\"email\":\"c@email\"}\n";
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final List<String> sentChunks = new ArrayList<>();
+    private NdjsonImportForwarder forwarder;
+
+    @BeforeEach
+    void setup() {
+        forwarder = new NdjsonImportForwarder(mapper, Validation.buildDefaultValidatorFactory().getValidator(), 2);
+    }
+
+    @Test
+    void forward_shouldReportRowsByUploadLine_whenGatewayAndServerRejectSome() throws IOException {
+        List<String> report = forward(rows -> {
+            sentChunks.add(new String(rows, StandardCharsets.UTF_8));
+            return sentChunks.size() == 1
+                    ? answer("{\"line\":2,\"error\":\"User with email b@email already exists.\"}\n" +
+                    "{\"imported\":1,\"failed\":1}\n")
+                    : answer("{\"imported\":1,\"failed\":0}\n");
+        });
+
+        assertEquals(2, sentChunks.size());
+        assertEquals(2, sentChunks.get(0).split("\n").length);
+        assertTrue(sentChunks.get(0).contains("a@email") && sentChunks.get(0).contains("b@email"));
+        assertFalse(sentChunks.get(0).contains("blank@email"));
+
+        assertEquals(4, report.size());
+        assertEquals(2, failureOf(report.get(0)).getLine());
+        assertEquals("user name should be not blank or null", failureOf(report.get(0)).getError());
+        assertEquals(3, failureOf(report.get(1)).getLine());
+        assertEquals("User with email b@email already exists.", failureOf(report.get(1)).getError());
+        assertEquals(4, failureOf(report.get(2)).getLine());
+        ImportSummary summary = mapper.readValue(report.get(3), ImportSummary.class);
+        assertEquals(2, summary.getImported());
+        assertEquals(3, summary.getFailed());
+    }
+
+    @Test
+    void forward_shouldFailChunkRowsAndGoOn_whenServerCallFails() throws IOException {
+        List<String> report = forward(rows -> {
+            sentChunks.add(new String(rows, StandardCharsets.UTF_8));
+            return sentChunks.size() == 1
+                    ? Mono.error(new IllegalStateException("connection refused"))
+                    : answer("{\"imported\":1,\"failed\":0}\n");
+        });
+
+        assertEquals(1, failureOf(report.get(1)).getLine());
+        assertEquals("Server call failed: connection refused", failureOf(report.get(1)).getError());
+        assertEquals(3, failureOf(report.get(2)).getLine());
+        ImportSummary summary = mapper.readValue(report.get(report.size() - 1), ImportSummary.class);
+        assertEquals(1, summary.getImported());
+        assertEquals(4, summary.getFailed());
+    }
+
+    private List<String> forward(Function<byte[], Mono<ResponseEntity<Object>>> server) throws IOException {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        forwarder.forward(new ByteArrayInputStream(UPLOAD.getBytes(StandardCharsets.UTF_8)), report, UserDto.class,
+                server);
+        return List.of(report.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    private static Mono<ResponseEntity<Object>> answer(String ndjson) {
+        return Mono.just(ResponseEntity.ok(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ImportFailure failureOf(String line) throws IOException {
+        return mapper.readValue(line, ImportFailure.class);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+
+    private MockRestServiceServer server;
+    private TestClient client;
+
+    @BeforeEach
+    void setup() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:9090/items"));
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new TestClient(new RestTemplateServerTransport(rest));
+    }
+
+    @Test
+    void get_shouldPassBodyAndHeadersThrough_whenServerAnswersOk() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "Mg");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo("http://localhost:9090/items?from=0&size=10"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client
+                .get("?from={from}&size={size}", 1L, Map.of("from", 0, "size", 10))
+                .block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Mg", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertEquals("[{\"id\":1}]", bodyOf(response));
+        server.verify();
+    }
+
+    @Test
+    void post_shouldSerializeRequestBody_whenBodyGiven() throws IOException {
+        server.expect(requestTo("http://localhost:9090/items"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("{\"name\":\"drill\"}"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.post("", 1L, Map.of("name", "drill")).block();
+
+        assertEquals("{\"id\":1}", bodyOf(response));
+        server.verify();
+    }
+
+    @Test
+    void get_shouldKeepStatusAndBody_whenServerAnswersError() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Internal", "hidden");
+        server.expect(requestTo("http://localhost:9090/items/99"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(headers)
+                        .body("{\"error\":\"Item with id 99 not found.\"}"));
+
+        ResponseEntity<Object> response = client.get("/99", 1L).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertFalse(response.getHeaders().containsKey("X-Internal"));
+        assertEquals("{\"error\":\"Item with id 99 not found.\"}", bodyOf(response));
+    }
+
+    private static String bodyOf(ResponseEntity<Object> response) throws IOException {
+        InputStreamResource body = (InputStreamResource) response.getBody();
+        assertNotNull(body);
+        return StreamUtils.copyToString(body.getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(ServerTransport transport) {
+            super(transport);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private final List<Sinks.One<ResponseEntity<Object>>> serverCalls = new ArrayList<>();
+    private RequestCoalescer coalescer;
+    private ServerTransport items;
+
+    @BeforeEach
+    void setup() {
+        coalescer = new RequestCoalescer(true, 100);
+        items = coalescer.decorate("http://localhost:9090/items", (method, path, parameters, requestEntity) -> {
+            Sinks.One<ResponseEntity<Object>> call = Sinks.one();
+            serverCalls.add(call);
+            return call.asMono();
+        });
+    }
+
+    @Test
+    void get_shouldShareOneServerCall_whenIdenticalReadsOverlap() {
+        List<CompletableFuture<ResponseEntity<Object>>> waiters = IntStream.range(0, 5)
+                .mapToObj(i -> get("/1", 1L).toFuture())
+                .collect(Collectors.toList());
+
+        assertEquals(1, serverCalls.size());
+        assertEquals(1, coalescer.inFlight());
+        serverCalls.get(0).tryEmitValue(ResponseEntity.ok().body(bytes("{\"id\":1}")));
+
+        for (CompletableFuture<ResponseEntity<Object>> waiter : waiters) {
+            assertEquals("{\"id\":1}", bodyOf(waiter.join()));
+        }
+        assertEquals(0, coalescer.inFlight());
+        assertEquals(0.8, coalescer.coalescingRatio(), 1e-9);
+    }
+
+    @Test
+    void get_shouldCallServerAgain_whenPreviousReadCompleted() {
+        CompletableFuture<ResponseEntity<Object>> first = get("/1", 1L).toFuture();
+        serverCalls.get(0).tryEmitValue(ResponseEntity.ok().body(bytes("{\"id\":1}")));
+        first.join();
+
+        get("/1", 1L).subscribe();
+
+        assertEquals(2, serverCalls.size());
+    }
+
+    @Test
+    void get_shouldNotShare_whenUsersDiffer() {
+        get("/1", 1L).subscribe();
+        get("/1", 2L).subscribe();
+
+        assertEquals(2, serverCalls.size());
+    }
+
+    @Test
+    void get_shouldShareError_whenServerCallFails() {
+        CompletableFuture<ResponseEntity<Object>> first = get("/1", 1L).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = get("/1", 1L).toFuture();
+
+        serverCalls.get(0).tryEmitError(new IllegalStateException("server down"));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    @Test
+    void post_shouldNotShare_whenSameRequestRepeated() {
+        items.exchange(HttpMethod.POST, "", null, request(1L)).subscribe();
+        items.exchange(HttpMethod.POST, "", null, request(1L)).subscribe();
+
+        assertEquals(2, serverCalls.size());
+    }
+
+    @Test
+    void get_shouldNotShare_whenExportIsStreamed() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+
+        items.exchange(HttpMethod.GET, "/export", null, new HttpEntity<>(headers)).subscribe();
+        items.exchange(HttpMethod.GET, "/export", null, new HttpEntity<>(headers)).subscribe();
+
+        assertEquals(2, serverCalls.size());
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    @Test
+    void get_shouldBypass_whenInFlightLimitReached() {
+        coalescer = new RequestCoalescer(true, 1);
+        items = coalescer.decorate("http://localhost:9090/items", (method, path, parameters, requestEntity) -> {
+            Sinks.One<ResponseEntity<Object>> call = Sinks.one();
+            serverCalls.add(call);
+            return call.asMono();
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+
+        get("/1", 1L).subscribe();
+        get("/2", 1L).subscribe();
+        get("/2", 1L).subscribe();
+
+        assertEquals(3, serverCalls.size());
+        assertEquals(1, coalescer.inFlight());
+        assertEquals(2, registry.get("gateway.coalescing.requests").tag("role", "bypassed")
+                .functionCounter().count());
+    }
+
+    private Mono<ResponseEntity<Object>> get(String path, long userId) {
+        return items.exchange(HttpMethod.GET, path, null, request(userId));
+    }
+
+    private static HttpEntity<Object> request(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return new HttpEntity<>(null, headers);
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String bodyOf(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
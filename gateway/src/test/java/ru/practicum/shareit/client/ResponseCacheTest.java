@@ -0,0 +1,206 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Deque<ResponseEntity<Object>> serverResponses = new ArrayDeque<>();
+    private final List<HttpEntity<?>> sentRequests = new ArrayList<>();
+    private ResponseCache cache;
+    private ServerTransport items;
+
+    @BeforeEach
+    void setup() {
+        cache = new ResponseCache(true, Duration.ofSeconds(30), Duration.ofMinutes(10), 100,
+                List.of("/items/{id:[0-9]+}", "/users/{id:[0-9]+}", "/requests/all"), nanos::get);
+        items = cache.decorate("http://localhost:9090/items", (method, path, parameters, requestEntity) -> {
+            sentRequests.add(requestEntity);
+            return Mono.just(serverResponses.removeFirst());
+        });
+    }
+
+    @Test
+    void get_shouldServeFromCache_whenEntryIsFresh() {
+        serverResponses.add(ok("{\"id\":1}", "\"v1\""));
+
+        ResponseEntity<Object> first = get(items, "/1", 1L);
+        ResponseEntity<Object> second = get(items, "/1", 1L);
+
+        assertEquals(1, sentRequests.size());
+        assertEquals("{\"id\":1}", bodyOf(first));
+        assertEquals("{\"id\":1}", bodyOf(second));
+        assertEquals("\"v1\"", second.getHeaders().getETag());
+    }
+
+    @Test
+    void get_shouldKeepUsersApart_whenSamePathRequested() {
+        serverResponses.add(ok("{\"id\":1,\"lastBooking\":{}}", "\"owner\""));
+        serverResponses.add(ok("{\"id\":1}", "\"other\""));
+
+        get(items, "/1", 1L);
+        ResponseEntity<Object> other = get(items, "/1", 2L);
+
+        assertEquals(2, sentRequests.size());
+        assertEquals("{\"id\":1}", bodyOf(other));
+    }
+
+    @Test
+    void get_shouldRevalidateWithEtag_whenEntryIsStale() {
+        serverResponses.add(ok("{\"id\":1}", "\"v1\""));
+        serverResponses.add(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        get(items, "/1", 1L);
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        ResponseEntity<Object> revalidated = get(items, "/1", 1L);
+        ResponseEntity<Object> fresh = get(items, "/1", 1L);
+
+        assertEquals(2, sentRequests.size());
+        assertEquals(List.of("\"v1\""), sentRequests.get(1).getHeaders().getIfNoneMatch());
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals("{\"id\":1}", bodyOf(revalidated));
+        assertEquals("{\"id\":1}", bodyOf(fresh));
+    }
+
+    @Test
+    void get_shouldReplaceEntry_whenServerAnswersNewVersion() {
+        serverResponses.add(ok("{\"id\":1,\"name\":\"old\"}", "\"v1\""));
+        serverResponses.add(ok("{\"id\":1,\"name\":\"new\"}", "\"v2\""));
+        get(items, "/1", 1L);
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        ResponseEntity<Object> changed = get(items, "/1", 1L);
+
+        assertEquals("{\"id\":1,\"name\":\"new\"}", bodyOf(changed));
+        assertEquals("\"v2\"", get(items, "/1", 1L).getHeaders().getETag());
+    }
+
+    @Test
+    void get_shouldNotCache_whenPathIsNotCacheable() {
+        serverResponses.add(ok("[]", null));
+        serverResponses.add(ok("[]", null));
+
+        get(items, "/search?text={text}", 1L, Map.of("text", "drill"));
+        get(items, "/search?text={text}", 1L, Map.of("text", "drill"));
+
+        assertEquals(2, sentRequests.size());
+    }
+
+    @Test
+    void get_shouldNotCache_whenServerAnswersError() {
+        serverResponses.add(ResponseEntity.status(HttpStatus.NOT_FOUND).body(bytes("{\"error\":\"not found\"}")));
+        serverResponses.add(ok("{\"id\":1}", "\"v1\""));
+
+        assertEquals(HttpStatus.NOT_FOUND, get(items, "/1", 1L).getStatusCode());
+        assertEquals(HttpStatus.OK, get(items, "/1", 1L).getStatusCode());
+        assertEquals(2, sentRequests.size());
+    }
+
+    @Test
+    void patch_shouldEvictPathForAllUsersAndHideHeader_whenServerReportsInvalidation() {
+        serverResponses.add(ok("{\"id\":1}", "\"v1\""));
+        serverResponses.add(ok("{\"id\":1}", "\"v1\""));
+        serverResponses.add(ok("{\"id\":2}", "\"v1\""));
+        get(items, "/1", 1L);
+        get(items, "/1", 2L);
+        get(items, "/2", 1L);
+
+        HttpHeaders invalidation = new HttpHeaders();
+        invalidation.add(ResponseCache.INVALIDATE_HEADER, "/items/1");
+        serverResponses.add(ResponseEntity.ok().headers(invalidation).body(bytes("{\"id\":1}")));
+        ResponseEntity<Object> patched = items.exchange(HttpMethod.PATCH, "/1", null, request(1L)).block();
+
+        assertFalse(patched.getHeaders().containsKey(ResponseCache.INVALIDATE_HEADER));
+        serverResponses.add(ok("{\"id\":1,\"name\":\"new\"}", "\"v2\""));
+        serverResponses.add(ok("{\"id\":1,\"name\":\"new\"}", "\"v2\""));
+        get(items, "/1", 1L);
+        get(items, "/1", 2L);
+        get(items, "/2", 1L);
+        assertEquals(6, sentRequests.size());
+    }
+
+    @Test
+    void get_shouldBypassCache_whenDisabled() {
+        cache = new ResponseCache(false, Duration.ofSeconds(30), Duration.ofMinutes(10), 100,
+                List.of("/items/{id:[0-9]+}"), nanos::get);
+        ServerTransport uncached = cache.decorate("http://localhost:9090/items", (method, path, parameters, entity) -> {
+            sentRequests.add(entity);
+            return Mono.just(serverResponses.removeFirst());
+        });
+        serverResponses.add(ok("{\"id\":1}", "\"v1\""));
+        serverResponses.add(ok("{\"id\":1}", "\"v1\""));
+
+        get(uncached, "/1", 1L);
+        get(uncached, "/1", 1L);
+
+        assertEquals(2, sentRequests.size());
+    }
+
+    @Test
+    void bindTo_shouldExportCacheAndRevalidationMeters_whenBound() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        serverResponses.add(ok("{\"id\":1}", "\"v1\""));
+        serverResponses.add(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        get(items, "/1", 1L);
+        get(items, "/1", 1L);
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        get(items, "/1", 1L);
+
+        assertEquals(2, registry.get("cache.gets").tag("cache", "gateway-responses").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, registry.get("gateway.response.cache.revalidations").tag("result", "not_modified")
+                .functionCounter().count());
+    }
+
+    private static ResponseEntity<Object> get(ServerTransport transport, String path, long userId) {
+        return transport.exchange(HttpMethod.GET, path, null, request(userId)).block();
+    }
+
+    private static ResponseEntity<Object> get(ServerTransport transport, String path, long userId,
+                                              Map<String, Object> parameters) {
+        return transport.exchange(HttpMethod.GET, path, parameters, request(userId)).block();
+    }
+
+    private static HttpEntity<Object> request(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return new HttpEntity<>(null, headers);
+    }
+
+    private static ResponseEntity<Object> ok(String body, String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(bytes(body));
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String bodyOf(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
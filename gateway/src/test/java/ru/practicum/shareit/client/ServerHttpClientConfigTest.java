@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpVersion;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ServerHttpClientConfigTest {
+
+    private final ServerHttpClientConfig config = new ServerHttpClientConfig();
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @BeforeEach
+    void setup() {
+        connectionManager = config.serverConnectionManager("http://localhost:9090", 50, 20, Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.close();
+    }
+
+    @Test
+    void serverConnectionManager_shouldLimitServerRoute_whenCreated() {
+        HttpRoute serverRoute = new HttpRoute(HttpHost.create("http://localhost:9090"));
+
+        assertEquals(50, connectionManager.getMaxTotal());
+        assertEquals(20, connectionManager.getMaxPerRoute(serverRoute));
+    }
+
+    @Test
+    void serverConnectionPoolMetrics_shouldExportPoolGauges_whenBound() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        config.serverConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        assertNotNull(registry.find("httpcomponents.httpclient.pool.total.max").gauge());
+        assertNotNull(registry.find("httpcomponents.httpclient.pool.total.pending").gauge());
+        assertEquals(50, registry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+    }
+
+    @Test
+    void keepAliveStrategy_shouldUseLimit_whenServerSendsNoKeepAlive() {
+        ConnectionKeepAliveStrategy strategy = ServerHttpClientConfig.keepAliveStrategy(30_000);
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+
+        assertEquals(30_000, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+    @Test
+    void keepAliveStrategy_shouldCapServerKeepAlive_whenLongerThanLimit() {
+        ConnectionKeepAliveStrategy strategy = ServerHttpClientConfig.keepAliveStrategy(30_000);
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.addHeader("Keep-Alive", "timeout=5");
+
+        assertEquals(5_000, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+
+        response.setHeader("Keep-Alive", "timeout=300");
+        assertEquals(30_000, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+}
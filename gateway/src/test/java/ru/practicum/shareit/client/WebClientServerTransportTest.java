@@ -0,0 +1,110 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebClientServerTransportTest {
+
+    private final AtomicReference<ClientRequest> sentRequest = new AtomicReference<>();
+    private ClientResponse serverResponse;
+    private WebClientServerTransport transport;
+
+    @BeforeEach
+    void setup() {
+        WebClient webClient = WebClient.builder()
+                .uriBuilderFactory(new DefaultUriBuilderFactory("http://localhost:9090/bookings"))
+                .exchangeFunction(request -> {
+                    sentRequest.set(request);
+                    return Mono.just(serverResponse);
+                })
+                .build();
+        transport = new WebClientServerTransport(webClient);
+    }
+
+    @Test
+    void exchange_shouldPassBodyAndHeadersThrough_whenServerAnswersOk() {
+        serverResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header("X-Next-Cursor", "Mg")
+                .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                .body("[{\"id\":1}]")
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+
+        ResponseEntity<Object> response = transport
+                .exchange(HttpMethod.GET, "/owner?state={state}", Map.of("state", "ALL"), new HttpEntity<>(headers))
+                .block();
+
+        assertNotNull(response);
+        assertEquals("http://localhost:9090/bookings/owner?state=ALL", sentRequest.get().url().toString());
+        assertEquals("1", sentRequest.get().headers().getFirst("X-Sharer-User-Id"));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Mg", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertEquals("[{\"id\":1}]", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exchange_shouldKeepStatusAndBody_whenServerAnswersError() {
+        serverResponse = ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header("X-Internal", "hidden")
+                .body("{\"error\":\"Booking with id 9 does not exist.\"}")
+                .build();
+
+        ResponseEntity<Object> response = transport
+                .exchange(HttpMethod.GET, "/9", null, new HttpEntity<>(new HttpHeaders()))
+                .block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey("X-Internal"));
+        assertEquals("{\"error\":\"Booking with id 9 does not exist.\"}",
+                new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exchange_shouldPipeBody_whenNdjsonIsAccepted() throws IOException {
+        serverResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .body("{\"id\":2}\n{\"id\":1}\n")
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = transport
+                .exchange(HttpMethod.GET, "/owner/export", null, new HttpEntity<>(headers))
+                .block();
+
+        assertNotNull(response);
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        InputStreamResource body = assertInstanceOf(InputStreamResource.class, response.getBody());
+        try (InputStream in = body.getInputStream()) {
+            assertEquals("{\"id\":2}\n{\"id\":1}\n", StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+        }
+    }
+}
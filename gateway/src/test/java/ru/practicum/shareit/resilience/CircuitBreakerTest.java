@@ -0,0 +1,115 @@
+package ru.practicum.shareit.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.resilience.CircuitBreaker.State.*;
+
+class CircuitBreakerTest {
+    private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setup() {
+        circuitBreaker = new CircuitBreaker(10, 4, 50, OPEN_NANOS, 2, nanos::get,
+                (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    @Test
+    void onResult_shouldStayClosed_whenFewerThanMinimumCalls() {
+        call(true);
+        call(true);
+        call(true);
+
+        assertEquals(CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void onResult_shouldOpen_whenFailureRateReachesThreshold() {
+        call(false);
+        call(false);
+        call(true);
+        call(true);
+
+        assertEquals(OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(OPEN_NANOS, circuitBreaker.remainingOpenNanos());
+    }
+
+    @Test
+    void onResult_shouldCountOnlyLastWindow_whenWindowSlides() {
+        for (int i = 0; i < 6; i++) {
+            call(false);
+        }
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        assertEquals(CLOSED, circuitBreaker.getState());
+
+        // the oldest success leaves the window: 5 failures of the last 10 calls
+        call(true);
+
+        assertEquals(OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void tryAcquire_shouldLetTrialCallsThrough_whenOpenDurationPassed() {
+        open();
+        nanos.addAndGet(OPEN_NANOS);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.onResult(false);
+        circuitBreaker.onResult(false);
+        assertEquals(CLOSED, circuitBreaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    void onResult_shouldReopen_whenTrialCallFails() {
+        open();
+        nanos.addAndGet(OPEN_NANOS);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onResult(true);
+
+        assertEquals(OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void onCancel_shouldReturnTrialSlot_whenHalfOpen() {
+        open();
+        nanos.addAndGet(OPEN_NANOS);
+        circuitBreaker.tryAcquire();
+        circuitBreaker.tryAcquire();
+
+        circuitBreaker.onCancel();
+
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        assertEquals(OPEN, circuitBreaker.getState());
+    }
+
+    private void call(boolean failure) {
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onResult(failure);
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.resilience;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.admission.ServerOverloadedException;
+import ru.practicum.shareit.client.RestTemplateServerTransport;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the isolation layer against a local stub server whose latency can spike during the test.
+ */
+class ClientIsolationStubServerTest {
+    private static final byte[] ITEM_JSON = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger latencyMs = new AtomicInteger();
+    private final AtomicInteger served = new AtomicInteger();
+    private HttpServer server;
+    private RestTemplate rest;
+    private SimpleMeterRegistry registry;
+    private ClientIsolation isolation;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 50);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            served.incrementAndGet();
+            try {
+                Thread.sleep(latencyMs.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, ITEM_JSON.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(ITEM_JSON);
+            } catch (IOException e) {
+                // the gateway gave up on a slow answer
+            }
+        });
+        server.start();
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(1000);
+        requestFactory.setReadTimeout(200);
+        rest = new RestTemplate(requestFactory);
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl()));
+
+        isolation = new ClientIsolation(true, 2, Duration.ofMillis(100),
+                new CircuitBreakerSettings(4, 4, 50, TimeUnit.MILLISECONDS.toNanos(300), 1, System::nanoTime));
+        registry = new SimpleMeterRegistry();
+        isolation.bindTo(registry);
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void exchange_shouldFailFastAndRecover_whenServerLatencySpikes() throws InterruptedException {
+        ServerTransport items = isolation.decorate(baseUrl(), new RestTemplateServerTransport(rest));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(HttpStatus.OK, get(items).block().getStatusCode());
+        }
+
+        latencyMs.set(500);
+        assertThrows(ResourceAccessException.class, () -> get(items).block());
+        assertThrows(ResourceAccessException.class, () -> get(items).block());
+        assertEquals(1, registry.get("gateway.circuit.state").tag("client", "items").gauge().value());
+
+        int servedBefore = served.get();
+        long start = System.nanoTime();
+        CircuitOpenException open = assertThrows(CircuitOpenException.class, () -> get(items).block());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(servedBefore, served.get());
+        assertTrue(open.getRetryAfterSeconds() >= 1);
+
+        latencyMs.set(0);
+        Thread.sleep(350);
+        assertEquals(HttpStatus.OK, get(items).block().getStatusCode());
+        assertEquals(0, registry.get("gateway.circuit.state").tag("client", "items").gauge().value());
+        assertEquals(1, registry.get("gateway.circuit.transitions").tag("client", "items").tag("to", "open")
+                .functionCounter().count());
+        assertEquals(1, registry.get("gateway.circuit.transitions").tag("client", "items").tag("to", "closed")
+                .functionCounter().count());
+    }
+
+    @Test
+    void exchange_shouldRejectOverBulkhead_whenClientCallsPileUp() {
+        latencyMs.set(150);
+        rest = new RestTemplate(new SimpleClientHttpRequestFactory());
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl()));
+        ServerTransport items = isolation.decorate(baseUrl(),
+                new RestTemplateServerTransport(rest, Schedulers.boundedElastic()));
+        ServerTransport users = isolation.decorate("http://localhost:" + server.getAddress().getPort() + "/users",
+                new RestTemplateServerTransport(rest, Schedulers.boundedElastic()));
+
+        CompletableFuture<ResponseEntity<Object>> first = get(items).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = get(items).toFuture();
+        CompletableFuture<ResponseEntity<Object>> third = get(items).toFuture();
+        CompletableFuture<ResponseEntity<Object>> otherClient = get(users).toFuture();
+
+        CompletionException rejected = assertThrows(CompletionException.class, third::join);
+        assertInstanceOf(ServerOverloadedException.class, rejected.getCause());
+        assertEquals(HttpStatus.OK, first.join().getStatusCode());
+        assertEquals(HttpStatus.OK, second.join().getStatusCode());
+        assertEquals(HttpStatus.OK, otherClient.join().getStatusCode());
+        assertEquals(1, registry.get("gateway.bulkhead.rejected").tag("client", "items").functionCounter().count());
+        assertEquals(0, registry.get("gateway.bulkhead.in.flight").tag("client", "items").gauge().value());
+    }
+
+    @Test
+    void exchange_shouldKeepCircuitClosed_whenConcurrencyLimitRefusesCalls() {
+        ServerTransport items = isolation.decorate(baseUrl(), (method, path, parameters, requestEntity) ->
+                Mono.error(new ServerOverloadedException("Concurrency limit reached for " + method + " " + path)));
+
+        for (int i = 0; i < 8; i++) {
+            assertThrows(ServerOverloadedException.class, () -> get(items).block());
+        }
+
+        assertEquals(0, registry.get("gateway.circuit.state").tag("client", "items").gauge().value());
+        assertEquals(0, registry.get("gateway.circuit.transitions").tag("client", "items").tag("to", "open")
+                .functionCounter().count());
+        assertEquals(0, registry.get("gateway.bulkhead.in.flight").tag("client", "items").gauge().value());
+        assertEquals(0, served.get());
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/items";
+    }
+
+    private static Mono<ResponseEntity<Object>> get(ServerTransport transport) {
+        return transport.exchange(HttpMethod.GET, "/1", null, HttpEntity.EMPTY);
+    }
+}
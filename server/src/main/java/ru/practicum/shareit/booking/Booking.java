@@ -15,13 +15,20 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("item"))
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Booking {
+    /**
+     * Booking detail, approve and access checks read the item and its owner id, nothing behind the booker proxy.
+     */
+    public static final String DETAIL_GRAPH = "Booking.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -2,9 +2,13 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.httpcache.CacheInvalidation;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 /**
@@ -20,15 +24,22 @@ public class BookingController {
 
     @PostMapping
     public BookingDto saveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                  @RequestBody BookingDto bookingDto) {
-        return bookingService.saveBooking(userId, bookingDto);
+                                  @RequestBody BookingDto bookingDto,
+                                  HttpServletResponse response) {
+        BookingDto saved = bookingService.saveBooking(userId, bookingDto);
+        // last and next booking of the item are part of the cached item
+        CacheInvalidation.invalidate(response, "/items/" + saved.getItemId());
+        return saved;
     }
 
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@RequestHeader("X-Sharer-User-Id") Long bookerId,
                                      @RequestParam(name = "approved") Boolean approve,
-                                     @PathVariable Long bookingId) {
-        return bookingService.approveBooking(bookerId, bookingId, approve);
+                                     @PathVariable Long bookingId,
+                                     HttpServletResponse response) {
+        BookingDto approved = bookingService.approveBooking(bookerId, bookingId, approve);
+        CacheInvalidation.invalidate(response, "/items/" + approved.getItemId());
+        return approved;
     }
 
     @GetMapping("/{bookingId}")
@@ -38,19 +49,32 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestParam(value = "state", defaultValue = "ALL") String state,
-                                            @RequestParam(value = "from", defaultValue = "0") Long from,
-                                            @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        return bookingService.getUserBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getUserBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "state", defaultValue = "ALL") String state,
+            @RequestParam(value = "from", defaultValue = "0") Long from,
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "after", required = false) String after) {
+        if (after != null) {
+            List<BookingDto> bookings = bookingService.getUserBookingsAfter(userId, state,
+                    PageCursor.idOf(after, Long.MAX_VALUE), size);
+            return PageCursor.page(bookings, size, b -> PageCursor.of(b.getId()));
+        }
+        return ResponseEntity.ok(bookingService.getUserBookings(userId, state, from, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                               @RequestParam(value = "state", defaultValue = "ALL") String state,
-                                               @RequestParam(value = "from", defaultValue = "0") Long from,
-                                               @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        return bookingService.getBookingsByOwner(ownerId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getBookingsByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestParam(value = "state", defaultValue = "ALL") String state,
+            @RequestParam(value = "from", defaultValue = "0") Long from,
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "after", required = false) String after) {
+        if (after != null) {
+            List<BookingDto> bookings = bookingService.getBookingsByOwnerAfter(ownerId, state,
+                    PageCursor.idOf(after, Long.MAX_VALUE), size);
+            return PageCursor.page(bookings, size, b -> PageCursor.of(b.getId()));
+        }
+        return ResponseEntity.ok(bookingService.getBookingsByOwner(ownerId, state, from, size));
     }
-
 }
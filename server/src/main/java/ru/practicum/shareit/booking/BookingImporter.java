@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.bulk.ImportFailure;
+import ru.practicum.shareit.bulk.ImportRow;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class BookingImporter {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    /**
+     * Applies the rules of a single booking to every row: items are loaded once per chunk, overlaps are checked
+     * against the interval index and against the rows accepted earlier in the same chunk.
+     */
+    public void importChunk(Long bookerId, List<ImportRow<BookingDto>> rows, Consumer<ImportFailure> failures) {
+        List<Long> itemIds = rows.stream()
+                .map(row -> row.getValue().getItemId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        User booker = userRepository.getReferenceById(bookerId);
+
+        List<Booking> bookings = new ArrayList<>(rows.size());
+        Map<Long, List<Booking>> accepted = new HashMap<>();
+        for (ImportRow<BookingDto> row : rows) {
+            BookingDto dto = row.getValue();
+            Item item = items.get(dto.getItemId());
+            String error = rejectReason(bookerId, dto, item, accepted.getOrDefault(dto.getItemId(), List.of()));
+            if (error != null) {
+                failures.accept(new ImportFailure(row.getLine(), error));
+                continue;
+            }
+
+            Booking booking = BookingMapper.dtoToBooking(dto);
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(Status.WAITING);
+            accepted.computeIfAbsent(item.getId(), id -> new ArrayList<>()).add(booking);
+            bookings.add(booking);
+        }
+
+        bookingRepository.saveAll(bookings);
+        bookingRepository.flush();
+        bookings.forEach(bookingIntervalIndex::add);
+    }
+
+    private String rejectReason(Long bookerId, BookingDto dto, Item item, List<Booking> acceptedForItem) {
+        if (item == null) {
+            return "Item with id " + dto.getItemId() + " not found.";
+        }
+        if (Objects.equals(item.getOwner().getId(), bookerId)) {
+            return "Owner cannot book his item.";
+        }
+        if (!item.getAvailable()) {
+            return "Item is not available.";
+        }
+        if (dto.getStart() == null || dto.getEnd() == null) {
+            return "Start and end time must be set.";
+        }
+        if (!dto.getStart().isBefore(dto.getEnd())) {
+            return "Start time must be before end time.";
+        }
+        boolean overlapsChunk = acceptedForItem.stream()
+                .anyMatch(other -> dto.getStart().isBefore(other.getEnd()) && other.getStart().isBefore(dto.getEnd()));
+        if (overlapsChunk || bookingIntervalIndex.overlaps(item.getId(), dto.getStart(), dto.getEnd())) {
+            return "Item is already booked for this period.";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingInterval {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Status status;
+
+    public static BookingInterval of(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Node-local cache of item timelines used to reject overlapping bookings without a query per request.
+ * Bookings added on other nodes are covered by the ex_bookings_item_period exclusion constraint, bookings
+ * freed there by reloading a timeline before it rejects anything and by expiring it a while after its load.
+ * A timeline is loaded and changed under the lock of its item, so a commit cannot be lost to a load.
+ */
+@Component
+public class BookingIntervalIndex {
+    static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemTimeline> timelines;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.timeline-cache-size:10000}") int maxItems,
+                                @Value("${shareit.booking.timeline-expire-after-load:30s}") Duration expireAfterLoad) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfter(expireAfterLoad(expireAfterLoad))
+                .build();
+    }
+
+    /**
+     * A hit is confirmed against a fresh timeline: the cached one may still hold a booking that another node
+     * has rejected or cancelled since. Rejections are rare, free periods are answered from the cache.
+     */
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!getTimeline(itemId).overlaps(start, end)) {
+            return false;
+        }
+        timelines.invalidate(itemId);
+        return getTimeline(itemId).overlaps(start, end);
+    }
+
+    public List<BookingPeriod> getBusyPeriods(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return getTimeline(itemId).busyBetween(ItemTimeline.toMillis(from), ItemTimeline.toMillis(to))
+                .stream()
+                .map(p -> new BookingPeriod(ItemTimeline.toDateTime(p[0]), ItemTimeline.toDateTime(p[1])))
+                .collect(Collectors.toList());
+    }
+
+    public void add(Booking booking) {
+        BookingInterval interval = BookingInterval.of(booking);
+        Long itemId = booking.getItem().getId();
+        afterCommit(() -> update(itemId, timeline -> timeline.with(interval)));
+    }
+
+    public void remove(Booking booking) {
+        Long bookingId = booking.getId();
+        Long itemId = booking.getItem().getId();
+        afterCommit(() -> update(itemId, timeline -> timeline.without(bookingId)));
+    }
+
+    /**
+     * The load runs under the lock of the item, an update committed meanwhile waits for it and is applied on top.
+     */
+    ItemTimeline getTimeline(Long itemId) {
+        return timelines.get(itemId,
+                id -> ItemTimeline.of(bookingRepository.findItemIntervals(id, ACTIVE_STATUSES)));
+    }
+
+    /**
+     * compute rather than computeIfPresent: the latter returns at once while the timeline is still loading,
+     * compute waits for the load and changes its result. An absent timeline stays absent.
+     */
+    private void update(Long itemId, UnaryOperator<ItemTimeline> change) {
+        timelines.asMap().compute(itemId, (id, timeline) -> timeline != null ? change.apply(timeline) : null);
+    }
+
+    /**
+     * Local updates keep the expiry of the load, otherwise a busy item would never see changes of other nodes.
+     */
+    private static Expiry<Long, ItemTimeline> expireAfterLoad(Duration expireAfterLoad) {
+        long nanos = expireAfterLoad.toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Long itemId, ItemTimeline timeline, long currentTime) {
+                return nanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(Long itemId, ItemTimeline timeline, long currentTime,
+                                          long currentDuration) {
+                return currentDuration;
+            }
+
+            @Override
+            public long expireAfterRead(Long itemId, ItemTimeline timeline, long currentTime,
+                                        long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.item.ItemInfoDto;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.user.UserInfoDto;
 import ru.practicum.shareit.user.UserMapper;
 
 public class BookingMapper {
@@ -19,6 +21,18 @@ public class BookingMapper {
         );
     }
 
+    public static BookingDto rowToDto(BookingRow row) {
+        return new BookingDto(
+                row.getId(),
+                row.getStart(),
+                row.getEnd(),
+                row.getItemId(),
+                new ItemInfoDto(row.getItemId(), row.getItemName(), row.getOwnerId()),
+                new UserInfoDto(row.getBookerId()),
+                row.getStatus()
+        );
+    }
+
     public static Booking dtoToBooking(BookingDto bookingDto) {
         return new Booking(
                 bookingDto.getStart(),
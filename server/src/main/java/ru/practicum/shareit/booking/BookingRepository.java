@@ -1,109 +1,186 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    @Query(value = "SELECT * " +
-            "FROM bookings AS b " +
-            "WHERE b.item_id = ?1 " +
-            "AND b.start_date < ?2 " +
-            "AND b.status = 'APPROVED' " +
-            "ORDER BY b.start_date DESC " +
-            "LIMIT 1", nativeQuery = true)
-    Optional<Booking> getItemLastBooking(Long itemId, LocalDateTime localDateTime);
-
-    @Query(value = "SELECT * " +
-            "FROM bookings AS b " +
-            "WHERE b.item_id = ?1 " +
-            "AND b.start_date > ?2 " +
-            "AND b.status = 'APPROVED' " +
-            "ORDER BY b.start_date ASC " +
-            "LIMIT 1", nativeQuery = true)
-    Optional<Booking> getItemNextBooking(Long itemId, LocalDateTime localDateTime);
-
-    List<Booking> findAllByBookerIdIsOrderByIdDesc(Long id, Pageable pageable);
-
-    @Query(" SELECT b " +
+    @Query(value = "SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status " +
+            "FROM (SELECT bk.*, " +
+            "      ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date DESC) AS rn " +
+            "      FROM bookings AS bk " +
+            "      WHERE bk.item_id IN (?1) " +
+            "      AND bk.start_date < ?2 " +
+            "      AND bk.status = 'APPROVED') AS b " +
+            "WHERE b.rn = 1", nativeQuery = true)
+    List<Booking> getItemsLastBookings(List<Long> itemIds, LocalDateTime localDateTime);
+
+    @Query(value = "SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status " +
+            "FROM (SELECT bk.*, " +
+            "      ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date ASC) AS rn " +
+            "      FROM bookings AS bk " +
+            "      WHERE bk.item_id IN (?1) " +
+            "      AND bk.start_date > ?2 " +
+            "      AND bk.status = 'APPROVED') AS b " +
+            "WHERE b.rn = 1", nativeQuery = true)
+    List<Booking> getItemsNextBookings(List<Long> itemIds, LocalDateTime localDateTime);
+
+    @EntityGraph(Booking.DETAIL_GRAPH)
+    Optional<Booking> findWithItemById(Long bookingId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingInterval(b.id, b.start, b.end, b.status) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.status IN ?2")
+    List<BookingInterval> findItemIntervals(Long itemId, List<Status> statuses);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
+            "JOIN b.item i " +
             "WHERE b.booker.id = ?1 " +
-            "AND b.start < ?2 " +
-            "AND b.end > ?2 " +
-            "ORDER BY b.id ASC")
-    List<Booking> findAllCurrentBookings(Long id, LocalDateTime now);
+            "AND b.id < ?2 " +
+            "ORDER BY b.id DESC")
+    List<BookingRow> findAllBookerBookings(Long id, Long afterId, Pageable pageable);
 
-    @Query(" SELECT b FROM Booking b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
             "WHERE b.booker.id = ?1 " +
-            "AND b.start > ?2 " +
+            "AND b.id < ?2 " +
+            "AND b.start < ?3 " +
+            "AND b.end > ?3 " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllFutureBookings(Long id, LocalDateTime now);
+    List<BookingRow> findAllCurrentBookings(Long id, Long afterId, LocalDateTime now, Pageable pageable);
 
-    @Query(" SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
+            "JOIN b.item i " +
             "WHERE b.booker.id = ?1 " +
-            "AND b.end < ?2 " +
+            "AND b.id < ?2 " +
+            "AND b.start > ?3 " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllPastBookings(Long id, LocalDateTime now);
+    List<BookingRow> findAllFutureBookings(Long id, Long afterId, LocalDateTime now, Pageable pageable);
 
-    @Query(" SELECT b " +
+    boolean existsByBookerIdAndItemIdAndEndBefore(Long bookerId, Long itemId, LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
+            "JOIN b.item i " +
             "WHERE b.booker.id = ?1 " +
+            "AND b.id < ?2 " +
+            "AND b.end < ?3 " +
+            "ORDER BY b.id DESC")
+    List<BookingRow> findAllPastBookings(Long id, Long afterId, LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.id < ?2 " +
             "AND b.status = 'WAITING' " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllWaitingBookings(Long id);
+    List<BookingRow> findAllWaitingBookings(Long id, Long afterId, Pageable pageable);
 
-    @Query(" SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
+            "JOIN b.item i " +
             "WHERE b.booker.id = ?1 " +
+            "AND b.id < ?2 " +
             "AND b.status = 'REJECTED' " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllRejectedBookings(Long id);
+    List<BookingRow> findAllRejectedBookings(Long id, Long afterId, Pageable pageable);
 
-    @Query(" SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
+            "JOIN b.item i " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.id < ?2 " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllOwnerBookings(Long userId, Pageable pageable);
+    List<BookingRow> findAllOwnerBookings(Long userId, Long afterId, Pageable pageable);
 
-    @Query(" SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND b.start < ?2 " +
-            "AND b.end > ?2 " +
+            "JOIN b.item i " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.id < ?2 " +
+            "AND b.start < ?3 " +
+            "AND b.end > ?3 " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllOwnerCurrentBookings(Long userId, LocalDateTime now);
+    List<BookingRow> findAllOwnerCurrentBookings(Long userId, Long afterId, LocalDateTime now, Pageable pageable);
 
-    @Query(" SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND b.start > ?2 " +
+            "JOIN b.item i " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.id < ?2 " +
+            "AND b.start > ?3 " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllOwnerFutureBookings(Long userId, LocalDateTime now);
+    List<BookingRow> findAllOwnerFutureBookings(Long userId, Long afterId, LocalDateTime now, Pageable pageable);
 
-    @Query(" SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND b.end < ?2 " +
+            "JOIN b.item i " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.id < ?2 " +
+            "AND b.end < ?3 " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllOwnerPastBookings(Long userId, LocalDateTime now);
+    List<BookingRow> findAllOwnerPastBookings(Long userId, Long afterId, LocalDateTime now, Pageable pageable);
 
-    @Query(" SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
+            "JOIN b.item i " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.id < ?2 " +
             "AND b.status = 'WAITING' " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllOwnerWaitingBookings(Long userId);
+    List<BookingRow> findAllOwnerWaitingBookings(Long userId, Long afterId, Pageable pageable);
 
-    @Query(" SELECT b " +
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
             "FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
+            "JOIN b.item i " +
+            "WHERE i.owner.id = ?1 " +
+            "AND b.id < ?2 " +
             "AND b.status = 'REJECTED' " +
             "ORDER BY b.id DESC")
-    List<Booking> findAllOwnerRejectedBookings(Long userId);
+    List<BookingRow> findAllOwnerRejectedBookings(Long userId, Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "WHERE b.booker.id = ?1 " +
+            "ORDER BY b.id DESC")
+    Stream<BookingRow> streamBookerBookings(Long userId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new ru.practicum.shareit.booking.BookingRow(b.id, b.start, b.end, i.id, i.name, i.owner.id, " +
+            "b.booker.id, b.status) " +
+            "FROM Booking b " +
+            "JOIN b.item i " +
+            "WHERE i.owner.id = ?1 " +
+            "ORDER BY b.id DESC")
+    Stream<BookingRow> streamOwnerBookings(Long userId);
 }
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat list row of a booking, selected by a constructor expression: the item name comes from the one join,
+ * owner and booker are read from the foreign key columns, no entity is loaded.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingRow {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Long itemId;
+    private String itemName;
+    private Long ownerId;
+    private Long bookerId;
+    private Status status;
+
+    public static BookingRow of(Booking booking) {
+        return new BookingRow(booking.getId(), booking.getStart(), booking.getEnd(), booking.getItem().getId(),
+                booking.getItem().getName(), booking.getItem().getOwner().getId(), booking.getBooker().getId(),
+                booking.getStatus());
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto saveBooking(Long userId, BookingDto booking);
@@ -15,6 +16,14 @@ public interface BookingService {
 
     List<BookingDto> getBookingsByOwner(Long userId, String state, Long from, Integer size);
 
+    List<BookingDto> getUserBookingsAfter(Long userId, String state, Long afterId, Integer size);
+
+    List<BookingDto> getBookingsByOwnerAfter(Long userId, String state, Long afterId, Integer size);
+
+    void exportUserBookings(Long userId, String state, Consumer<BookingDto> rows);
+
+    void exportBookingsByOwner(Long userId, String state, Consumer<BookingDto> rows);
+
     Booking getBookingIfExist(Long bookingId);
 
 }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
@@ -13,27 +16,36 @@ import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final String PERIOD_CONSTRAINT = "ex_bookings_item_period";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingSummaries itemBookingSummaries;
 
     @Transactional
     @Override
     public BookingDto saveBooking(Long userId, BookingDto booking) {
         Item item = itemService.getItemIfExist(booking.getItemId());
-        User user = userService.getUserIfExist(userId);
+        User user = userService.getUserReference(userId);
 
-        if (Objects.equals(item.getOwner().getId(), user.getId())) {
+        if (Objects.equals(item.getOwner().getId(), userId)) {
             throw new UserVerificationException("Owner cannot book his item.");
         }
 
@@ -42,27 +54,34 @@ public class BookingServiceImpl implements BookingService {
         }
 
         checkTime(booking);
+        checkOverlap(item.getId(), booking.getStart(), booking.getEnd());
 
         Booking newBooking = BookingMapper.dtoToBooking(booking);
         newBooking.setItem(item);
         newBooking.setBooker(user);
         newBooking.setStatus(Status.WAITING);
 
-        return BookingMapper.bookingToDto(bookingRepository.save(newBooking));
+        Booking savedBooking = saveChecked(newBooking);
+        bookingIntervalIndex.add(savedBooking);
+
+        return BookingMapper.bookingToDto(savedBooking);
     }
 
     @Transactional
     @Override
     public BookingDto approveBooking(Long userId, Long bookingId, Boolean approve) {
-        Booking booking = getBookingIfExist(bookingId);
-        userService.getUserIfExist(userId);
-        Item item = itemService.getItemIfExist(booking.getItem().getId());
+        Booking booking = getBookingWithItem(bookingId);
+        Item item = booking.getItem();
 
         if (!Objects.equals(item.getOwner().getId(), userId)) {
+            userService.checkUserExist(userId);
             throw new NotFoundException("This user not owner.");
         }
 
         if (approve && !booking.getStatus().equals(Status.APPROVED)) {
+            if (!BookingIntervalIndex.ACTIVE_STATUSES.contains(booking.getStatus())) {
+                checkOverlap(item.getId(), booking.getStart(), booking.getEnd());
+            }
             booking.setStatus(Status.APPROVED);
         } else if (!approve && !booking.getStatus().equals(Status.REJECTED)) {
             booking.setStatus(Status.REJECTED);
@@ -70,16 +89,22 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Booking status was already changed");
         }
 
+        Booking savedBooking = saveChecked(booking);
+        if (Status.APPROVED.equals(savedBooking.getStatus())) {
+            bookingIntervalIndex.add(savedBooking);
+        } else {
+            bookingIntervalIndex.remove(savedBooking);
+        }
+        itemBookingSummaries.statusChanged(savedBooking, LocalDateTime.now());
 
-        return BookingMapper.bookingToDto(bookingRepository.save(booking));
+        return BookingMapper.bookingToDto(savedBooking);
     }
 
     @Override
     public BookingDto getBookingById(Long userId, Long bookingId) {
-        User user = userService.getUserIfExist(userId);
-        Booking booking = getBookingIfExist(bookingId);
+        Booking booking = getBookingWithItem(bookingId);
 
-        checkUserAccess(user, booking);
+        checkUserAccess(userId, booking);
 
         return BookingMapper.bookingToDto(booking);
     }
@@ -87,96 +112,178 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public List<BookingDto> getUserBookings(Long userId, String state, Long from, Integer size) {
-        userService.getUserIfExist(userId);
-        List<Booking> bookings;
+        userService.checkUserExist(userId);
         State bookingState = checkBookingState(state);
         if (from < 0) {
             throw new IllegalArgumentException("From must be greater than 0.");
         }
         int startPage = Math.toIntExact(from / size);
 
-        switch (bookingState) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerIdIsOrderByIdDesc(userId, PageRequest.of(startPage, size));
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllCurrentBookings(userId, LocalDateTime.now());
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllFutureBookings(userId, LocalDateTime.now());
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllPastBookings(userId, LocalDateTime.now());
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllWaitingBookings(userId);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllRejectedBookings(userId);
-                break;
-            default:
-                throw new IllegalStateException("Unknown booking state: " + bookingState);
-        }
-
-        return bookings.stream()
-                .map(BookingMapper::bookingToDto)
+        return findUserBookings(userId, bookingState, LocalDateTime.now(), Long.MAX_VALUE,
+                PageRequest.of(startPage, size))
+                .stream()
+                .map(BookingMapper::rowToDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional
     public List<BookingDto> getBookingsByOwner(Long userId, String state, Long from, Integer size) {
-        userService.getUserIfExist(userId);
+        userService.checkUserExist(userId);
         State bookingState = checkBookingState(state);
-        List<Booking> bookings;
         if (from < 0) {
             throw new IllegalArgumentException("From must be greater than 0.");
         }
         int startPage = Math.toIntExact(from / size);
 
-        switch (bookingState) {
+        return findOwnerBookings(userId, bookingState, LocalDateTime.now(), Long.MAX_VALUE,
+                PageRequest.of(startPage, size))
+                .stream()
+                .map(BookingMapper::rowToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    @Override
+    public List<BookingDto> getUserBookingsAfter(Long userId, String state, Long afterId, Integer size) {
+        userService.checkUserExist(userId);
+        State bookingState = checkBookingState(state);
+
+        return findUserBookings(userId, bookingState, LocalDateTime.now(), afterId, PageRequest.of(0, size))
+                .stream()
+                .map(BookingMapper::rowToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    @Override
+    public List<BookingDto> getBookingsByOwnerAfter(Long userId, String state, Long afterId, Integer size) {
+        userService.checkUserExist(userId);
+        State bookingState = checkBookingState(state);
+
+        return findOwnerBookings(userId, bookingState, LocalDateTime.now(), afterId, PageRequest.of(0, size))
+                .stream()
+                .map(BookingMapper::rowToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One cursor over all bookings of the booker whatever the state, the state is applied to the rows
+     * as they pass.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void exportUserBookings(Long userId, String state, Consumer<BookingDto> rows) {
+        userService.checkUserExist(userId);
+        Predicate<BookingRow> inState = stateFilter(checkBookingState(state), LocalDateTime.now());
+
+        try (Stream<BookingRow> bookings = bookingRepository.streamBookerBookings(userId)) {
+            exportRows(bookings, inState, rows);
+        }
+    }
+
+    /**
+     * Same as {@link #exportUserBookings} over the bookings of the owner's items.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void exportBookingsByOwner(Long userId, String state, Consumer<BookingDto> rows) {
+        userService.checkUserExist(userId);
+        Predicate<BookingRow> inState = stateFilter(checkBookingState(state), LocalDateTime.now());
+
+        try (Stream<BookingRow> bookings = bookingRepository.streamOwnerBookings(userId)) {
+            exportRows(bookings, inState, rows);
+        }
+    }
+
+    public Booking getBookingIfExist(Long bookingId) {
+        Optional<Booking> booking = bookingRepository.findById(bookingId);
+        if (booking.isEmpty()) {
+            throw new NotFoundException("Booking with id " + bookingId + " does not exist.");
+        }
+        return booking.get();
+    }
+
+    private void exportRows(Stream<BookingRow> bookings, Predicate<BookingRow> inState, Consumer<BookingDto> rows) {
+        bookings.filter(inState)
+                .map(BookingMapper::rowToDto)
+                .forEach(rows);
+    }
+
+    private List<BookingRow> findUserBookings(Long userId, State state, LocalDateTime now, Long afterId,
+                                              Pageable page) {
+        switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllOwnerBookings(userId, PageRequest.of(startPage, size));
-                break;
+                return bookingRepository.findAllBookerBookings(userId, afterId, page);
             case CURRENT:
-                bookings = bookingRepository.findAllOwnerCurrentBookings(userId, LocalDateTime.now());
-                break;
+                return bookingRepository.findAllCurrentBookings(userId, afterId, now, page);
             case FUTURE:
-                bookings = bookingRepository.findAllOwnerFutureBookings(userId, LocalDateTime.now());
-                break;
+                return bookingRepository.findAllFutureBookings(userId, afterId, now, page);
             case PAST:
-                bookings = bookingRepository.findAllOwnerPastBookings(userId, LocalDateTime.now());
-                break;
+                return bookingRepository.findAllPastBookings(userId, afterId, now, page);
             case WAITING:
-                bookings = bookingRepository.findAllOwnerWaitingBookings(userId);
-                break;
+                return bookingRepository.findAllWaitingBookings(userId, afterId, page);
             case REJECTED:
-                bookings = bookingRepository.findAllOwnerRejectedBookings(userId);
-                break;
+                return bookingRepository.findAllRejectedBookings(userId, afterId, page);
             default:
-                throw new IllegalStateException("Unknown booking state: " + bookingState);
+                throw new IllegalStateException("Unknown booking state: " + state);
         }
+    }
 
-        return bookings.stream()
-                .map(BookingMapper::bookingToDto)
-                .collect(Collectors.toList());
+    private List<BookingRow> findOwnerBookings(Long userId, State state, LocalDateTime now, Long afterId,
+                                               Pageable page) {
+        switch (state) {
+            case ALL:
+                return bookingRepository.findAllOwnerBookings(userId, afterId, page);
+            case CURRENT:
+                return bookingRepository.findAllOwnerCurrentBookings(userId, afterId, now, page);
+            case FUTURE:
+                return bookingRepository.findAllOwnerFutureBookings(userId, afterId, now, page);
+            case PAST:
+                return bookingRepository.findAllOwnerPastBookings(userId, afterId, now, page);
+            case WAITING:
+                return bookingRepository.findAllOwnerWaitingBookings(userId, afterId, page);
+            case REJECTED:
+                return bookingRepository.findAllOwnerRejectedBookings(userId, afterId, page);
+            default:
+                throw new IllegalStateException("Unknown booking state: " + state);
+        }
     }
 
-    public Booking getBookingIfExist(Long bookingId) {
-        Optional<Booking> booking = bookingRepository.findById(bookingId);
-        if (booking.isEmpty()) {
-            throw new NotFoundException("Booking with id " + bookingId + " does not exist.");
+    /**
+     * Same conditions as the per-state queries of the list endpoints.
+     */
+    private static Predicate<BookingRow> stateFilter(State state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return booking -> true;
+            case CURRENT:
+                return booking -> booking.getStart().isBefore(now) && booking.getEnd().isAfter(now);
+            case FUTURE:
+                return booking -> booking.getStart().isAfter(now);
+            case PAST:
+                return booking -> booking.getEnd().isBefore(now);
+            case WAITING:
+                return booking -> booking.getStatus() == Status.WAITING;
+            case REJECTED:
+                return booking -> booking.getStatus() == Status.REJECTED;
+            default:
+                throw new IllegalStateException("Unknown booking state: " + state);
         }
-        return booking.get();
     }
 
-    private void checkUserAccess(User user, Booking booking) {
+    private Booking getBookingWithItem(Long bookingId) {
+        return bookingRepository.findWithItemById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking with id " + bookingId + " does not exist."));
+    }
+
+    private void checkUserAccess(Long userId, Booking booking) {
         Long ownerId = booking.getItem().getOwner().getId();
         Long bookerId = booking.getBooker().getId();
-        Long userId = user.getId();
 
         if (!Objects.equals(userId, ownerId) &&
                 !Objects.equals(userId, bookerId)) {
+            userService.checkUserExist(userId);
             throw new UserVerificationException("User with id " + userId + " is not allowed to access this booking.");
         }
     }
@@ -191,6 +298,43 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    private void checkOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingIntervalIndex.overlaps(itemId, start, end)) {
+            throw new BadRequestException("Item is already booked for this period.");
+        }
+    }
+
+    private Booking saveChecked(Booking booking) {
+        try {
+            Booking savedBooking = bookingRepository.save(booking);
+            bookingRepository.flush();
+            return savedBooking;
+        } catch (DataIntegrityViolationException e) {
+            if (isPeriodConflict(e)) {
+                throw new BadRequestException("Item is already booked for this period.");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Only the ex_bookings_item_period exclusion constraint means the period is taken, foreign key and not null
+     * violations are bugs and must not turn into a client error. Hibernate does not extract the name of an
+     * exclusion constraint, so the SQL state decides.
+     */
+    private static boolean isPeriodConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException
+                    && PERIOD_CONSTRAINT.equalsIgnoreCase(((ConstraintViolationException) cause).getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private State checkBookingState(String state) {
         try {
             return State.valueOf(state);
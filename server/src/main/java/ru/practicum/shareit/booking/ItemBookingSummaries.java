@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps item_booking_summary in step with the bookings. Approvals and rejections update the row of their item
+ * in their own transaction, {@link ItemBookingSummaryScheduler} moves rows whose next booking has started.
+ * Until then, or when a row is missing, reads are answered from the bookings themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaries {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    public void itemsCreated(Collection<Long> itemIds) {
+        summaryRepository.saveAll(itemIds.stream()
+                .map(ItemBookingSummary::empty)
+                .collect(Collectors.toList()));
+    }
+
+    public ItemBookingSummary get(Long itemId, LocalDateTime now) {
+        return getAll(List.of(itemId), now).get(itemId);
+    }
+
+    /**
+     * One summary per item id. Outdated rows are not written here: without the row lock a read could
+     * overwrite a concurrent approval.
+     */
+    public Map<Long, ItemBookingSummary> getAll(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (ItemBookingSummary summary : summaryRepository.findAllById(itemIds)) {
+            if (summary.isCurrent(now)) {
+                summaries.put(summary.getItemId(), summary);
+            }
+        }
+
+        List<ItemBookingSummary> outdated = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .map(ItemBookingSummary::empty)
+                .collect(Collectors.toList());
+        if (!outdated.isEmpty()) {
+            for (ItemBookingSummary summary : reset(outdated, now)) {
+                summaries.put(summary.getItemId(), summary);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Called once the new status of the booking is flushed. The row of the item is locked first, concurrent
+     * status changes of one item apply one after the other.
+     */
+    public void statusChanged(Booking booking, LocalDateTime now) {
+        Long itemId = booking.getItem().getId();
+        List<ItemBookingSummary> locked = summaryRepository.findAllForUpdate(List.of(itemId));
+        if (locked.isEmpty()) {
+            summaryRepository.saveAll(reset(List.of(ItemBookingSummary.empty(itemId)), now));
+            return;
+        }
+
+        ItemBookingSummary summary = locked.get(0);
+        if (!summary.isCurrent(now) || summary.refersTo(booking.getId())) {
+            reset(locked, now);
+        } else if (Status.APPROVED.equals(booking.getStatus())) {
+            summary.offer(booking, now);
+        }
+    }
+
+    /**
+     * Moves up to batchSize rows whose next booking has started and returns how many were moved.
+     * A moved row gets a next booking after now or none, so it is not picked up again.
+     */
+    @Transactional
+    public int advance(LocalDateTime now, int batchSize) {
+        List<Long> itemIds = summaryRepository.findStartedItemIds(now, PageRequest.of(0, batchSize));
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+
+        reset(summaryRepository.findAllForUpdate(itemIds), now);
+        return itemIds.size();
+    }
+
+    private List<ItemBookingSummary> reset(List<ItemBookingSummary> summaries, LocalDateTime now) {
+        List<Long> itemIds = summaries.stream()
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        Map<Long, Booking> lastBookings = byItem(bookingRepository.getItemsLastBookings(itemIds, now));
+        Map<Long, Booking> nextBookings = byItem(bookingRepository.getItemsNextBookings(itemIds, now));
+
+        for (ItemBookingSummary summary : summaries) {
+            summary.reset(lastBookings.get(summary.getItemId()), nextBookings.get(summary.getItemId()));
+        }
+        return summaries;
+    }
+
+    private static Map<Long, Booking> byItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity()));
+    }
+}
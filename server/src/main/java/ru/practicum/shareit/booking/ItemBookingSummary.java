@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import java.time.LocalDateTime;
+
+/**
+ * Last and next approved booking of an item, denormalized from bookings together with their bookers,
+ * so an item read answers from this row alone. The row stays valid until its next booking starts.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@NoArgsConstructor
+public class ItemBookingSummary implements Persistable<Long> {
+    @Id
+    private Long itemId;
+    private Long lastBookingId;
+    private Long lastBookerId;
+    private LocalDateTime lastStart;
+    private Long nextBookingId;
+    private Long nextBookerId;
+    private LocalDateTime nextStart;
+
+    // the id is assigned, without the flag every save of a new row would select it first
+    @Transient
+    private boolean stored;
+
+    public static ItemBookingSummary empty(Long itemId) {
+        ItemBookingSummary summary = new ItemBookingSummary();
+        summary.itemId = itemId;
+        return summary;
+    }
+
+    public static ItemBookingSummary of(Long itemId, @Nullable Booking last, @Nullable Booking next) {
+        ItemBookingSummary summary = empty(itemId);
+        summary.reset(last, next);
+        return summary;
+    }
+
+    /**
+     * Outdated once the next booking has started, or when a booking it pointed to was deleted with its booker.
+     */
+    public boolean isCurrent(LocalDateTime now) {
+        if (lastBookingId == null && lastStart != null || nextBookingId == null && nextStart != null) {
+            return false;
+        }
+        return nextStart == null || nextStart.isAfter(now);
+    }
+
+    @Nullable
+    public BookingInfoDto lastBooking() {
+        return lastBookingId != null ? new BookingInfoDto(lastBookingId, lastBookerId) : null;
+    }
+
+    @Nullable
+    public BookingInfoDto nextBooking() {
+        return nextBookingId != null ? new BookingInfoDto(nextBookingId, nextBookerId) : null;
+    }
+
+    boolean refersTo(Long bookingId) {
+        return bookingId.equals(lastBookingId) || bookingId.equals(nextBookingId);
+    }
+
+    /**
+     * Takes a newly approved booking if it is closer to now than the current last or next one.
+     * Only valid on a current row, an outdated one has to be reset from the bookings.
+     */
+    void offer(Booking booking, LocalDateTime now) {
+        LocalDateTime start = booking.getStart();
+        if (start.isBefore(now) && (lastStart == null || start.isAfter(lastStart))) {
+            setLast(booking);
+        } else if (start.isAfter(now) && (nextStart == null || start.isBefore(nextStart))) {
+            setNext(booking);
+        }
+    }
+
+    void reset(@Nullable Booking last, @Nullable Booking next) {
+        setLast(last);
+        setNext(next);
+    }
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        stored = true;
+    }
+
+    private void setLast(@Nullable Booking booking) {
+        lastBookingId = booking != null ? booking.getId() : null;
+        lastBookerId = booking != null ? booking.getBooker().getId() : null;
+        lastStart = booking != null ? booking.getStart() : null;
+    }
+
+    private void setNext(@Nullable Booking booking) {
+        nextBookingId = booking != null ? booking.getId() : null;
+        nextBookerId = booking != null ? booking.getBooker().getId() : null;
+        nextStart = booking != null ? booking.getStart() : null;
+    }
+}
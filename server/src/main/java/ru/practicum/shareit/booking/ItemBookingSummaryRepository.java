@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s " +
+            "FROM ItemBookingSummary s " +
+            "WHERE s.itemId IN ?1 " +
+            "ORDER BY s.itemId")
+    List<ItemBookingSummary> findAllForUpdate(Collection<Long> itemIds);
+
+    @Query("SELECT s.itemId " +
+            "FROM ItemBookingSummary s " +
+            "WHERE s.nextStart <= ?1 " +
+            "ORDER BY s.itemId")
+    List<Long> findStartedItemIds(LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDateTime;
+
+/**
+ * Advances item booking summaries as time passes: once the next booking of an item starts it becomes the last
+ * one and the following approved booking becomes the next.
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.booking-summary.scheduler.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class ItemBookingSummaryScheduler {
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final int batchSize;
+
+    public ItemBookingSummaryScheduler(ItemBookingSummaries itemBookingSummaries,
+                                       @Value("${shareit.booking-summary.batch-size:500}") int batchSize) {
+        this.itemBookingSummaries = itemBookingSummaries;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.advance-interval:PT1M}")
+    public void advance() {
+        LocalDateTime now = LocalDateTime.now();
+        int advanced = 0;
+        int batch;
+        do {
+            batch = itemBookingSummaries.advance(now, batchSize);
+            advanced += batch;
+        } while (batch == batchSize);
+
+        if (advanced > 0) {
+            log.info("Advanced booking summaries of {} items.", advanced);
+        }
+    }
+}
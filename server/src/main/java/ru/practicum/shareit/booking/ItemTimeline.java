@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the WAITING and APPROVED bookings of one item.
+ * Intervals are half-open [start, end) in epoch millis, sorted by start;
+ * maxEnds[i] is the largest end among the first i + 1 intervals.
+ */
+class ItemTimeline {
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private ItemTimeline(long[] ids, long[] starts, long[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+        }
+    }
+
+    static ItemTimeline of(List<BookingInterval> intervals) {
+        BookingInterval[] sorted = intervals.stream()
+                .sorted(Comparator.comparing(BookingInterval::getStart))
+                .toArray(BookingInterval[]::new);
+
+        long[] ids = new long[sorted.length];
+        long[] starts = new long[sorted.length];
+        long[] ends = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getId();
+            starts[i] = toMillis(sorted[i].getStart());
+            ends[i] = toMillis(sorted[i].getEnd());
+        }
+
+        return new ItemTimeline(ids, starts, ends);
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        int candidates = firstStartNotBefore(toMillis(end));
+        return candidates > 0 && maxEnds[candidates - 1] > toMillis(start);
+    }
+
+    /**
+     * Merged busy periods clipped to [from, to), as {start, end} pairs in epoch millis.
+     */
+    List<long[]> busyBetween(long from, long to) {
+        List<long[]> busy = new ArrayList<>();
+
+        for (int i = firstMaxEndAfter(from); i < starts.length && starts[i] < to; i++) {
+            if (ends[i] <= from) {
+                continue;
+            }
+            long start = Math.max(starts[i], from);
+            long end = Math.min(ends[i], to);
+            long[] last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+
+            if (last != null && start <= last[1]) {
+                last[1] = Math.max(last[1], end);
+            } else {
+                busy.add(new long[]{start, end});
+            }
+        }
+
+        return busy;
+    }
+
+    ItemTimeline with(BookingInterval interval) {
+        ItemTimeline timeline = without(interval.getId());
+        long start = toMillis(interval.getStart());
+        int position = timeline.firstStartNotBefore(start);
+
+        return new ItemTimeline(
+                insert(timeline.ids, position, interval.getId()),
+                insert(timeline.starts, position, start),
+                insert(timeline.ends, position, toMillis(interval.getEnd()))
+        );
+    }
+
+    ItemTimeline without(long bookingId) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == bookingId) {
+                return new ItemTimeline(remove(ids, i), remove(starts, i), remove(ends, i));
+            }
+        }
+        return this;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    private int firstMaxEndAfter(long millis) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] <= millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstStartNotBefore(long millis) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static long[] insert(long[] array, int position, long value) {
+        long[] result = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, position, result, position + 1, array.length - position);
+        result[position] = value;
+        return result;
+    }
+
+    private static long[] remove(long[] array, int position) {
+        long[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, position + 1, result, position, array.length - position - 1);
+        return result;
+    }
+}
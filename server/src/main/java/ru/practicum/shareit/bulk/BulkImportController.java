@@ -0,0 +1,63 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.BookingImporter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.httpcache.CacheInvalidation;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemImporter;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserImporter;
+import ru.practicum.shareit.user.UserService;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * NDJSON bulk imports, one JSON object per line in, a failure per line and a summary out.
+ * The user is checked before the first row, later problems are reported per row.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class BulkImportController {
+    private final NdjsonImporter ndjsonImporter;
+    private final UserService userService;
+    private final UserImporter userImporter;
+    private final ItemImporter itemImporter;
+    private final BookingImporter bookingImporter;
+
+    @PostMapping(value = "/users/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Import users.");
+        ndjsonImporter.importRows(request, response, UserDto.class, userImporter::importChunk);
+    }
+
+    @PostMapping(value = "/items/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.info("Import items of user with id {}", userId);
+        userService.checkUserExist(userId);
+        // the headers go out before the rows are read, items may answer requests
+        CacheInvalidation.invalidate(response, "/requests/all");
+        ndjsonImporter.importRows(request, response, ItemDto.class,
+                (rows, failures) -> itemImporter.importChunk(userId, rows, failures));
+    }
+
+    @PostMapping(value = "/bookings/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        log.info("Import bookings of user with id {}", userId);
+        userService.checkUserExist(userId);
+        ndjsonImporter.importRows(request, response, BookingDto.class,
+                (rows, failures) -> bookingImporter.importChunk(userId, rows, failures));
+    }
+}
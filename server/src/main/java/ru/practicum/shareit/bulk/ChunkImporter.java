@@ -0,0 +1,13 @@
+package ru.practicum.shareit.bulk;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes one chunk inside the transaction of the caller. Rows that break a rule are passed to the failures
+ * and skipped, the rest is persisted and flushed, so a constraint the checks missed fails the whole chunk.
+ */
+@FunctionalInterface
+public interface ChunkImporter<T> {
+    void importChunk(List<ImportRow<T>> rows, Consumer<ImportFailure> failures);
+}
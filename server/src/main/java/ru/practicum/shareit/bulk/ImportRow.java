@@ -0,0 +1,14 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One parsed upload row with its line number in the upload, failures are reported by that line.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ImportRow<T> {
+    private final long line;
+    private final T value;
+}
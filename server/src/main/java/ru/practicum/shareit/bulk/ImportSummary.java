@@ -0,0 +1,13 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportSummary {
+    private long imported;
+    private long failed;
+}
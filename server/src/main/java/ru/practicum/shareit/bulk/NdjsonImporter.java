@@ -0,0 +1,153 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an NDJSON upload line by line and writes it in chunks, one transaction and one persistence context
+ * per chunk, so memory holds one chunk whatever the upload size. The report is NDJSON too: a line per failed
+ * row as soon as its chunk is done, then the summary.
+ */
+@Component
+public class NdjsonImporter {
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public NdjsonImporter(ObjectMapper objectMapper, EntityManagerFactory entityManagerFactory,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${shareit.import.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Runs on the request thread: an upload can easily outlive the async request timeout.
+     */
+    public <T> void importRows(HttpServletRequest request, HttpServletResponse response, Class<T> type,
+                               ChunkImporter<T> importer) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        importRows(request.getInputStream(), response.getOutputStream(), type, importer);
+    }
+
+    /**
+     * The entity manager that open-in-view binds to the request is set aside for the whole upload. Otherwise
+     * every chunk transaction would join it: committed rows would stay managed until the request ends, and the
+     * row by row replay would reuse the session that has just failed. Without it each transaction opens its own
+     * entity manager and closes it on completion.
+     */
+    public <T> ImportSummary importRows(InputStream body, OutputStream report, Class<T> type,
+                                        ChunkImporter<T> importer) throws IOException {
+        Object requestEntityManager = TransactionSynchronizationManager.unbindResourceIfPossible(entityManagerFactory);
+        try {
+            return readRows(body, report, type, importer);
+        } finally {
+            if (requestEntityManager != null) {
+                TransactionSynchronizationManager.bindResource(entityManagerFactory, requestEntityManager);
+            }
+        }
+    }
+
+    private <T> ImportSummary readRows(InputStream body, OutputStream report, Class<T> type,
+                                       ChunkImporter<T> importer) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<ImportRow<T>> chunk = new ArrayList<>(chunkSize);
+        long imported = 0;
+        long failed = 0;
+        long lineNumber = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                chunk.add(new ImportRow<>(lineNumber, objectMapper.readValue(line, type)));
+            } catch (JsonProcessingException e) {
+                failed++;
+                write(report, new ImportFailure(lineNumber, "Malformed row: " + e.getOriginalMessage()));
+                continue;
+            }
+
+            if (chunk.size() == chunkSize) {
+                long chunkFailed = writeChunk(chunk, importer, report);
+                imported += chunk.size() - chunkFailed;
+                failed += chunkFailed;
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            long chunkFailed = writeChunk(chunk, importer, report);
+            imported += chunk.size() - chunkFailed;
+            failed += chunkFailed;
+        }
+
+        ImportSummary summary = new ImportSummary(imported, failed);
+        write(report, summary);
+        report.flush();
+        return summary;
+    }
+
+    /**
+     * Writes the chunk as one batch. When the database rejects the batch, the chunk is replayed row by row,
+     * each in its own transaction, to find the offending rows and keep the others.
+     */
+    private <T> long writeChunk(List<ImportRow<T>> chunk, ChunkImporter<T> importer,
+                                OutputStream report) throws IOException {
+        List<ImportFailure> failures = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> importer.importChunk(chunk, failures::add));
+        } catch (DataIntegrityViolationException e) {
+            failures.clear();
+            for (ImportRow<T> row : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> importer.importChunk(List.of(row),
+                            failures::add));
+                } catch (DataIntegrityViolationException rowException) {
+                    failures.add(new ImportFailure(row.getLine(), "Row conflicts with existing data."));
+                }
+            }
+        }
+
+        for (ImportFailure failure : failures) {
+            write(report, failure);
+        }
+        report.flush();
+        return failures.size();
+    }
+
+    private void write(OutputStream report, Object value) throws IOException {
+        report.write(objectMapper.writeValueAsBytes(value));
+        report.write(NEW_LINE);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.config;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * A virtual thread that blocks inside a synchronized block pins its carrier thread.
+ * PgJDBC before 42.6 guards the whole query round trip with synchronized, so with a busy pool
+ * every carrier ends up pinned and request threads stop being scheduled.
+ */
+final class JdbcPinningGuard {
+    private static final String POSTGRES_DRIVER = "PostgreSQL JDBC Driver";
+
+    private JdbcPinningGuard() {
+    }
+
+    static boolean pinsCarrierThreads(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return pinsCarrierThreads(connection.getMetaData());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read JDBC driver version.", e);
+        }
+    }
+
+    static boolean pinsCarrierThreads(DatabaseMetaData metaData) throws SQLException {
+        if (!POSTGRES_DRIVER.equals(metaData.getDriverName())) {
+            return true;
+        }
+        int major = metaData.getDriverMajorVersion();
+        return major < 42 || major == 42 && metaData.getDriverMinorVersion() < 6;
+    }
+
+    static String describeDriver(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            return metaData.getDriverName() + " " + metaData.getDriverVersion();
+        } catch (SQLException e) {
+            return "unknown";
+        }
+    }
+}
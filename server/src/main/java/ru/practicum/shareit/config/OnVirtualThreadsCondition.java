@@ -0,0 +1,28 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Matches when shareit.threads.virtual=true and the runtime has virtual threads,
+ * otherwise the application keeps the platform thread pools.
+ */
+@Slf4j
+class OnVirtualThreadsCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        if (!context.getEnvironment().getProperty("shareit.threads.virtual", Boolean.class, false)) {
+            return ConditionOutcome.noMatch("shareit.threads.virtual is not enabled");
+        }
+        if (!VirtualThreads.isSupported()) {
+            log.warn("shareit.threads.virtual is enabled but Java {} has no virtual threads, "
+                    + "platform threads are used.", Runtime.version());
+            return ConditionOutcome.noMatch("virtual threads are not supported by Java " + Runtime.version());
+        }
+        return ConditionOutcome.match("virtual threads are enabled");
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Opt-in Hibernate second-level cache of users, items and requests in in-process Caffeine caches.
+ * Every region is created here with its own size limit, a region without one fails the startup
+ * instead of silently growing without bound.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.second-level-cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+    public static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String UPDATE_TIMESTAMPS_REGION =
+            RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    /**
+     * A cache manager of its own per application context, so contexts in one JVM do not share regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${shareit.second-level-cache.users.maximum-size:10000}") long usersSize,
+            @Value("${shareit.second-level-cache.items.maximum-size:50000}") long itemsSize,
+            @Value("${shareit.second-level-cache.requests.maximum-size:10000}") long requestsSize,
+            @Value("${shareit.second-level-cache.query-results.maximum-size:1000}") long queryResultsSize) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("shareit-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(User.CACHE_REGION, region(OptionalLong.of(usersSize)));
+        cacheManager.createCache(Item.CACHE_REGION, region(OptionalLong.of(itemsSize)));
+        cacheManager.createCache(ItemRequest.CACHE_REGION, region(OptionalLong.of(requestsSize)));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(OptionalLong.of(queryResultsSize)));
+        // one entry per table, evicting one would let the query cache serve results of a changed table
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, region(OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return new SecondLevelCacheMetrics(entityManagerFactory.unwrap(SessionFactory.class).getStatistics(),
+                User.CACHE_REGION, Item.CACHE_REGION, ItemRequest.CACHE_REGION, QUERY_RESULTS_REGION);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hit, miss and put counts of the second-level cache regions as shareit.second.level.cache.* metrics
+ * with the tag region, read from the Hibernate statistics when the registry polls.
+ */
+class SecondLevelCacheMetrics implements MeterBinder {
+    private final Statistics statistics;
+    private final List<String> regions;
+
+    SecondLevelCacheMetrics(Statistics statistics, String... regions) {
+        this.statistics = statistics;
+        this.regions = List.of(regions);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : regions) {
+            FunctionCounter.builder("shareit.second.level.cache.requests", statistics,
+                            count(region, CacheRegionStatistics::getHitCount))
+                    .tag("region", region)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("shareit.second.level.cache.requests", statistics,
+                            count(region, CacheRegionStatistics::getMissCount))
+                    .tag("region", region)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("shareit.second.level.cache.puts", statistics,
+                            count(region, CacheRegionStatistics::getPutCount))
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    private static ToDoubleFunction<Statistics> count(String region, ToLongFunction<CacheRegionStatistics> counter) {
+        return statistics -> {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            return regionStatistics != null ? counter.applyAsLong(regionStatistics) : 0;
+        };
+    }
+}
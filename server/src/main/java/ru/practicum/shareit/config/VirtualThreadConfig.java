@@ -0,0 +1,40 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Serves requests on virtual threads unless the JDBC driver would pin their carrier threads.
+ */
+@Slf4j
+@Configuration
+@Conditional(OnVirtualThreadsCondition.class)
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return VirtualThreads.newPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor,
+            DataSource dataSource,
+            @Value("${shareit.threads.allow-pinning-driver:false}") boolean allowPinningDriver) {
+        if (!allowPinningDriver && JdbcPinningGuard.pinsCarrierThreads(dataSource)) {
+            log.warn("JDBC driver {} holds monitors during socket I/O, requests stay on platform threads. "
+                    + "Set shareit.threads.allow-pinning-driver=true to override.",
+                    JdbcPinningGuard.describeDriver(dataSource));
+            return protocolHandler -> { };
+        }
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+}
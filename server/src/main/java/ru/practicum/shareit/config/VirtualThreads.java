@@ -0,0 +1,45 @@
+package ru.practicum.shareit.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The project is compiled for Java 11, so virtual threads are looked up at runtime:
+ * they are available only when the application runs on Java 21 or newer.
+ */
+public final class VirtualThreads {
+    private static final MethodHandle NEW_PER_TASK_EXECUTOR = findPerTaskExecutor();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return NEW_PER_TASK_EXECUTOR != null;
+    }
+
+    public static ExecutorService newPerTaskExecutor() {
+        if (NEW_PER_TASK_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads are not supported by Java " + Runtime.version());
+        }
+        try {
+            return (ExecutorService) NEW_PER_TASK_EXECUTOR.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create virtual thread executor.", e);
+        }
+    }
+
+    private static MethodHandle findPerTaskExecutor() {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            // Java 19 and 20 have the method as a preview API that throws unless preview is enabled.
+            ((ExecutorService) handle.invoke()).shutdown();
+            return handle;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemService;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * NDJSON exports for reporting jobs: one forward-only cursor instead of paging through the list endpoints.
+ * This is the only streaming read, the list endpoints answer one keyset page at a time.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class ExportController {
+    private final NdjsonExporter ndjsonExporter;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+
+    @GetMapping("/bookings/export")
+    public void exportUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                   @RequestParam(value = "state", defaultValue = "ALL") String state,
+                                   HttpServletResponse response) throws IOException {
+        log.info("Export bookings of user with id {} in state {}", userId, state);
+        ndjsonExporter.exportRows(response, BookingDto.class,
+                rows -> bookingService.exportUserBookings(userId, state, rows));
+    }
+
+    @GetMapping("/bookings/owner/export")
+    public void exportBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                      @RequestParam(value = "state", defaultValue = "ALL") String state,
+                                      HttpServletResponse response) throws IOException {
+        log.info("Export bookings of owner with id {} in state {}", ownerId, state);
+        ndjsonExporter.exportRows(response, BookingDto.class,
+                rows -> bookingService.exportBookingsByOwner(ownerId, state, rows));
+    }
+
+    @GetMapping("/items/export")
+    public void exportItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                   HttpServletResponse response) throws IOException {
+        log.info("Export items of owner with id {}", ownerId);
+        ndjsonExporter.exportRows(response, ItemDto.class, rows -> itemService.exportItemsByOwner(ownerId, rows));
+    }
+}
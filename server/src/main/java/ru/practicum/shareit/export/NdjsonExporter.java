@@ -0,0 +1,60 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows as NDJSON the moment the cursor hands them over, one JSON object per line. Nothing is collected,
+ * the servlet buffer goes out whenever it fills up.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonExporter {
+    private static final char NEW_LINE = '\n';
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Runs on the request thread inside the read transaction of the source, an export can outlive the async
+     * request timeout. The source validates before its first row, so errors still answer with a JSON body.
+     */
+    public <T> void exportRows(HttpServletResponse response, Class<T> type,
+                               Consumer<Consumer<T>> source) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        exportRows(response.getOutputStream(), type, source);
+    }
+
+    public <T> long exportRows(OutputStream out, Class<T> type, Consumer<Consumer<T>> source) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long[] written = new long[1];
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            source.accept(row -> {
+                try {
+                    writer.writeValue(generator, row);
+                    generator.writeRaw(NEW_LINE);
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return written[0];
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.httpcache;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Tells the gateway which cached paths a successful mutation made stale.
+ * A path also covers its query variants and everything below it, so "/items" drops every cached item.
+ */
+public final class CacheInvalidation {
+    public static final String HEADER = "X-Cache-Invalidate";
+
+    private CacheInvalidation() {
+    }
+
+    public static void invalidate(HttpServletResponse response, String... paths) {
+        for (String path : paths) {
+            response.addHeader(HEADER, path);
+        }
+    }
+}
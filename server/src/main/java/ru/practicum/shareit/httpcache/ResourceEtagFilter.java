@@ -0,0 +1,30 @@
+package ru.practicum.shareit.httpcache;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * Adds a strong ETag to the single resources the gateway caches and answers If-None-Match with 304.
+ * The entities have no modification time, so the ETag is a hash of the body instead of a Last-Modified date;
+ * the server still builds the response, the 304 only saves the body on the wire.
+ */
+@Component
+public class ResourceEtagFilter extends ShallowEtagHeaderFilter {
+    static final List<String> CACHEABLE_PATHS = List.of("/items/{id:[0-9]+}", "/users/{id:[0-9]+}", "/requests/all");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return CACHEABLE_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+}
@@ -2,9 +2,15 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.httpcache.CacheInvalidation;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -19,25 +25,39 @@ public class ItemController {
 
     @PostMapping
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                           @RequestBody ItemDto item) {
+                           @RequestBody ItemDto item,
+                           HttpServletResponse response) {
         log.info("Add new item.");
-        return itemService.addItem(userId, item);
+        ItemDto added = itemService.addItem(userId, item);
+        if (added.getRequestId() != null) {
+            CacheInvalidation.invalidate(response, "/requests/all");
+        }
+        return added;
     }
 
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                  @PathVariable(value = "itemId") Long itemId,
-                                 @RequestBody CommentDto commentDto) {
+                                 @RequestBody CommentDto commentDto,
+                                 HttpServletResponse response) {
         log.info("Add new comment.");
-        return itemService.addComment(userId, itemId, commentDto);
+        CommentDto added = itemService.addComment(userId, itemId, commentDto);
+        CacheInvalidation.invalidate(response, "/items/" + itemId);
+        return added;
     }
 
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @PathVariable Long itemId,
-                              @RequestBody ItemDto item) {
+                              @RequestBody ItemDto item,
+                              HttpServletResponse response) {
         log.info("Update item with id {}", itemId);
-        return itemService.updateItem(userId, itemId, item);
+        ItemDto updated = itemService.updateItem(userId, itemId, item);
+        CacheInvalidation.invalidate(response, "/items/" + itemId);
+        if (updated.getRequestId() != null) {
+            CacheInvalidation.invalidate(response, "/requests/all");
+        }
+        return updated;
     }
 
     @GetMapping("/{itemId}")
@@ -47,21 +67,41 @@ public class ItemController {
         return itemService.getItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        log.info("Get availability of item with id {} from {} to {}", itemId, from, to);
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
     @GetMapping
-    public List<ItemDto> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @RequestParam(value = "from", defaultValue = "0") Long from,
-                                         @RequestParam(value = "size", defaultValue = "10") Integer size) {
+    public ResponseEntity<List<ItemDto>> getItemsByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "from", defaultValue = "0") Long from,
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "after", required = false) String after) {
         log.info("Get items by user with id {}", userId);
-        return itemService.getItemsByOwner(userId, from, size);
+        if (after != null) {
+            List<ItemDto> items = itemService.getItemsByOwnerAfter(userId, PageCursor.idOf(after, 0L), size);
+            return PageCursor.page(items, size, i -> PageCursor.of(i.getId()));
+        }
+        return ResponseEntity.ok(itemService.getItemsByOwner(userId, from, size));
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text,
-                                     @RequestParam(value = "from", defaultValue = "0") Long from,
-                                     @RequestParam(value = "size", defaultValue = "10") Integer size) {
+    public ResponseEntity<List<ItemDto>> searchItems(
+            @RequestParam String text,
+            @RequestParam(value = "from", defaultValue = "0") Long from,
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "after", required = false) String after) {
         log.info("Get items with text {}", text);
-        return itemService.searchItems(text, from, size);
+        if (after != null) {
+            List<ItemDto> items = itemService.searchItemsAfter(text, PageCursor.idOf(after, 0L), size);
+            return PageCursor.page(items, size, i -> PageCursor.of(i.getId()));
+        }
+        return ResponseEntity.ok(itemService.searchItems(text, from, size));
     }
-
-
 }
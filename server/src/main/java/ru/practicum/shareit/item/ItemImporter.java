@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.ItemBookingSummaries;
+import ru.practicum.shareit.bulk.ImportFailure;
+import ru.practicum.shareit.bulk.ImportRow;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ItemImporter {
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemBookingSummaries itemBookingSummaries;
+
+    /**
+     * The owner is checked once per upload by the caller, the requests once per chunk.
+     */
+    public void importChunk(Long ownerId, List<ImportRow<ItemDto>> rows, Consumer<ImportFailure> failures) {
+        List<Long> requestIds = rows.stream()
+                .map(row -> row.getValue().getRequestId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Set<Long> existingRequestIds = itemRequestRepository.findAllById(requestIds).stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        User owner = userRepository.getReferenceById(ownerId);
+
+        List<Item> items = new ArrayList<>(rows.size());
+        for (ImportRow<ItemDto> row : rows) {
+            Long requestId = row.getValue().getRequestId();
+            if (requestId != null && !existingRequestIds.contains(requestId)) {
+                failures.accept(new ImportFailure(row.getLine(), "Request does not exist."));
+                continue;
+            }
+
+            Item item = ItemMapper.dtoToItem(row.getValue());
+            item.setOwner(owner);
+            if (requestId != null) {
+                item.setRequest(itemRequestRepository.getReferenceById(requestId));
+            }
+            items.add(item);
+        }
+
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+        items.forEach(itemSearchEngine::index);
+        itemBookingSummaries.itemsCreated(items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList()));
+    }
+}
@@ -3,12 +3,17 @@ package ru.practicum.shareit.item;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerIdIsOrderById(Long userId, Pageable pageable);
 
+    List<Item> findAllByOwnerIdIsAndIdGreaterThanOrderById(Long userId, Long afterId, Pageable pageable);
+
     @Query("SELECT i " +
             "FROM Item i " +
             "WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) " +
@@ -16,7 +21,49 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "AND i.available = true")
     List<Item> search(String text, Pageable pageable);
 
+    @Query("SELECT i " +
+            "FROM Item i " +
+            "WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            " OR LOWER(i.description) LIKE LOWER(concat('%', ?1, '%'))) " +
+            "AND i.available = true " +
+            "AND i.id > ?2 " +
+            "ORDER BY i.id")
+    List<Item> searchAfter(String text, Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT * " +
+            "FROM items AS i " +
+            "WHERE (i.name ILIKE CONCAT('%', ?1, '%') " +
+            " OR i.description ILIKE CONCAT('%', ?1, '%')) " +
+            "AND i.available = true " +
+            "ORDER BY i.id", nativeQuery = true)
+    List<Item> searchTrigram(String text, Pageable pageable);
+
+    @Query(value = "SELECT * " +
+            "FROM items AS i " +
+            "WHERE (i.name ILIKE CONCAT('%', ?1, '%') " +
+            " OR i.description ILIKE CONCAT('%', ?1, '%')) " +
+            "AND i.available = true " +
+            "AND i.id > ?2 " +
+            "ORDER BY i.id", nativeQuery = true)
+    List<Item> searchTrigramAfter(String text, Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new ru.practicum.shareit.item.ItemSearchRow(i.id, i.name, i.description, i.available) " +
+            "FROM Item i")
+    Stream<ItemSearchRow> streamSearchRows();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new ru.practicum.shareit.item.ItemDto(i.id, i.name, i.description, i.available, i.owner.id, " +
+            "r.id) " +
+            "FROM Item i " +
+            "LEFT JOIN i.request r " +
+            "WHERE i.owner.id = ?1 " +
+            "ORDER BY i.id")
+    Stream<ItemDto> streamOwnerItems(Long userId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findAllByRequestIdIn(List<Long> requestIds);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findAllByRequestIdIs(Long requestId);
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, Pageable pageable);
+
+    List<Item> searchAfter(String text, long afterId, int size);
+
+    default void index(Item item) {
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/search-index")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class ItemSearchIndexController {
+    private final NgramItemSearchEngine searchEngine;
+
+    @GetMapping
+    public ItemSearchIndexStats getStats() {
+        return searchEngine.getStats();
+    }
+
+    @PostMapping("/rebuild")
+    public ItemSearchIndexStats rebuild() {
+        log.info("Rebuild item search index.");
+        searchEngine.rebuild();
+        return searchEngine.getStats();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ItemSearchIndexStats {
+    private int items;
+    private int availableItems;
+    private int grams;
+    private long postings;
+    private long rebuildMillis;
+    private LocalDateTime builtAt;
+}
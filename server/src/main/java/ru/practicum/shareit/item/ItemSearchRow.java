@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemSearchRow {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+
+    public static ItemSearchRow of(Item item) {
+        return new ItemSearchRow(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.comment.CommentDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto addItem(Long userId, ItemDto item);
@@ -13,8 +15,16 @@ public interface ItemService {
 
     List<ItemDto> getItemsByOwner(Long userId, Long from, Integer size);
 
+    List<ItemDto> getItemsByOwnerAfter(Long userId, Long afterId, Integer size);
+
+    void exportItemsByOwner(Long userId, Consumer<ItemDto> rows);
+
     List<ItemDto> searchItems(String text, Long from, Integer size);
 
+    List<ItemDto> searchItemsAfter(String text, Long afterId, Integer size);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     CommentDto addComment(Long userId, Long itemId, CommentDto comment);
 
     Item getItemIfExist(Long itemId);
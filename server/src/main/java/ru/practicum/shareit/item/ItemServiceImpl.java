@@ -4,18 +4,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingPeriod;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.Status;
-import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.ItemBookingSummaries;
+import ru.practicum.shareit.booking.ItemBookingSummary;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.comment.CommentRepository;
-import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
@@ -23,9 +22,12 @@ import ru.practicum.shareit.user.UserService;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -37,27 +39,31 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentJpaRepository;
     private final BookingRepository bookingJpaRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingSummaries itemBookingSummaries;
 
     @Transactional
     @Override
     public ItemDto addItem(Long userId, ItemDto itemDto) {
         Item item = ItemMapper.dtoToItem(itemDto);
 
-        User owner = userService.getUserIfExist(userId);
+        User owner = userService.getUserReference(userId);
         item.setOwner(owner);
 
         if (itemDto.getRequestId() != null) {
-            Optional<ItemRequest> request = itemRequestRepository.findById(itemDto.getRequestId());
-            if (request.isEmpty()) {
+            if (!itemRequestRepository.existsById(itemDto.getRequestId())) {
                 throw new NotFoundException("Request does not exist.");
             }
 
-            item.setRequest(request.get());
-
-            return ItemMapper.itemToDto(itemRepository.save(item));
+            item.setRequest(itemRequestRepository.getReferenceById(itemDto.getRequestId()));
         }
 
-        return ItemMapper.itemToDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        itemBookingSummaries.itemsCreated(List.of(savedItem.getId()));
+
+        return ItemMapper.itemToDto(savedItem);
     }
 
     @Transactional
@@ -80,7 +86,10 @@ public class ItemServiceImpl implements ItemService {
             itemToUpdate.setAvailable(itemDto.getAvailable());
         }
 
-        return ItemMapper.itemToDto(itemRepository.save(itemToUpdate));
+        Item updatedItem = itemRepository.save(itemToUpdate);
+        itemSearchEngine.index(updatedItem);
+
+        return ItemMapper.itemToDto(updatedItem);
     }
 
     @Transactional
@@ -98,8 +107,9 @@ public class ItemServiceImpl implements ItemService {
         itemDto.setComments(commentDto);
 
         if (Objects.equals(item.getOwner().getId(), userId)) {
-            itemDto.setLastBooking(getLastBooking(itemId));
-            itemDto.setNextBooking(getNextBooking(itemId));
+            ItemBookingSummary summary = itemBookingSummaries.get(itemId, LocalDateTime.now());
+            itemDto.setLastBooking(summary.lastBooking());
+            itemDto.setNextBooking(summary.nextBooking());
         }
 
         return itemDto;
@@ -110,24 +120,28 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> getItemsByOwner(Long userId, Long from, Integer size) {
         int startPage = Math.toIntExact(from / size);
 
-        List<ItemDto> ownerItems = itemRepository.findAllByOwnerIdIsOrderById(userId, PageRequest.of(startPage, size))
-                .stream()
-                .map(ItemMapper::itemToDto)
-                .collect(Collectors.toList());
-
-        for (ItemDto itemDto : ownerItems) {
+        return withBookingsAndComments(itemRepository.findAllByOwnerIdIsOrderById(userId,
+                PageRequest.of(startPage, size)));
+    }
 
-            List<CommentDto> comments = commentJpaRepository.findAllByItemIdIs(itemDto.getId())
-                    .stream()
-                    .map(CommentMapper::commentToDto)
-                    .collect(Collectors.toList());
+    @Transactional
+    @Override
+    public List<ItemDto> getItemsByOwnerAfter(Long userId, Long afterId, Integer size) {
+        return withBookingsAndComments(itemRepository.findAllByOwnerIdIsAndIdGreaterThanOrderById(userId, afterId,
+                PageRequest.of(0, size)));
+    }
 
-            itemDto.setComments(comments);
-            itemDto.setLastBooking(getLastBooking(itemDto.getId()));
-            itemDto.setNextBooking(getNextBooking(itemDto.getId()));
+    /**
+     * Plain item rows without bookings and comments, read through a cursor so the owner's item count does not
+     * matter. The user check runs before the first row is handed out.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void exportItemsByOwner(Long userId, Consumer<ItemDto> rows) {
+        userService.checkUserExist(userId);
+        try (Stream<ItemDto> items = itemRepository.streamOwnerItems(userId)) {
+            items.forEach(rows);
         }
-
-        return ownerItems;
     }
 
     @Transactional
@@ -137,54 +151,100 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
         int startPage = Math.toIntExact(from / size);
-        List<Item> items = itemRepository.search(text.toLowerCase(), PageRequest.of(startPage, size));
+        List<Item> items = itemSearchEngine.search(text.toLowerCase(), PageRequest.of(startPage, size));
 
         return items.stream()
                 .map(ItemMapper::itemToDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional
+    @Override
+    public List<ItemDto> searchItemsAfter(String text, Long afterId, Integer size) {
+        if (text.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Item> items = itemSearchEngine.searchAfter(text.toLowerCase(), afterId, size);
+
+        return items.stream()
+                .map(ItemMapper::itemToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("From must be before to.");
+        }
+        checkItemExist(itemId);
+
+        List<BookingPeriod> busy = bookingIntervalIndex.getBusyPeriods(itemId, from, to);
+        List<BookingPeriod> free = new ArrayList<>();
+        LocalDateTime freeStart = from;
+
+        for (BookingPeriod period : busy) {
+            if (freeStart.isBefore(period.getStart())) {
+                free.add(new BookingPeriod(freeStart, period.getStart()));
+            }
+            freeStart = period.getEnd();
+        }
+        if (freeStart.isBefore(to)) {
+            free.add(new BookingPeriod(freeStart, to));
+        }
+
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
+
     @Transactional
     @Override
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
 
         User author = userService.getUserIfExist(userId);
-        Item item = getItemIfExist(itemId);
         LocalDateTime creationDate = LocalDateTime.now();
-        List<Booking> pastBookings = bookingJpaRepository.findAllPastBookings(author.getId(), creationDate);
 
-        Optional<Booking> booking = pastBookings.stream()
-                .filter(b -> b.getItem().getId().equals(item.getId()))
-                .findFirst();
-        if (booking.isEmpty()) {
+        if (!bookingJpaRepository.existsByBookerIdAndItemIdAndEndBefore(userId, itemId, creationDate)) {
+            checkItemExist(itemId);
             throw new BadRequestException("This user don't booking this item");
         }
 
         Comment comment = CommentMapper.dtoToComment(commentDto);
         comment.setAuthor(author);
-        comment.setItem(item);
+        comment.setItem(itemRepository.getReferenceById(itemId));
         comment.setCreationDate(creationDate);
         commentJpaRepository.save(comment);
 
         return CommentMapper.commentToDto(comment);
     }
 
-    private BookingInfoDto getLastBooking(Long itemId) {
-        Optional<Booking> lastBooking = bookingJpaRepository.getItemLastBooking(itemId, LocalDateTime.now());
+    private List<ItemDto> withBookingsAndComments(List<Item> items) {
+        List<ItemDto> ownerItems = items.stream()
+                .map(ItemMapper::itemToDto)
+                .collect(Collectors.toList());
+
+        if (ownerItems.isEmpty()) {
+            return ownerItems;
+        }
 
-        return lastBooking
-                .map(BookingMapper::bookingToInfoDto)
-                .orElse(null);
-    }
+        List<Long> itemIds = ownerItems.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
 
-    private BookingInfoDto getNextBooking(Long itemId) {
-        Optional<Booking> nextBooking = bookingJpaRepository.getItemNextBooking(itemId,
-                LocalDateTime.now());
+        Map<Long, List<CommentDto>> comments = commentJpaRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::commentToDto, Collectors.toList())));
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaries.getAll(itemIds, now);
 
-        return nextBooking
-                .filter(b -> !b.getStatus().equals(Status.REJECTED))
-                .map(BookingMapper::bookingToInfoDto)
-                .orElse(null);
+        for (ItemDto itemDto : ownerItems) {
+            ItemBookingSummary summary = summaries.get(itemDto.getId());
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), new ArrayList<>()));
+            itemDto.setLastBooking(summary.lastBooking());
+            itemDto.setNextBooking(summary.nextBooking());
+        }
+
+        return ownerItems;
     }
 
     public Item getItemIfExist(Long itemId) {
@@ -196,6 +256,12 @@ public class ItemServiceImpl implements ItemService {
         return item.get();
     }
 
+    private void checkItemExist(Long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item with id " + itemId + " not found.");
+        }
+    }
+
     @Override
     public List<Item> getItemsByRequestIdIn(List<Long> requestIds) {
         return itemRepository.findAllByRequestIdIn(requestIds);
@@ -0,0 +1,284 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted trigram index over item names and descriptions.
+ * Posting lists hold sorted item ids, availability is kept in a bitset by document slot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class NgramItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+    private final LongPostingList allIds = new LongPostingList();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final BitSet available = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile long rebuildMillis;
+    private volatile LocalDateTime builtAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            long started = System.currentTimeMillis();
+
+            postings.clear();
+            allIds.clear();
+            slots.clear();
+            documents.clear();
+            available.clear();
+
+            try (Stream<ItemSearchRow> rows = itemRepository.streamSearchRows()) {
+                rows.forEach(this::put);
+            }
+
+            rebuildMillis = System.currentTimeMillis() - started;
+            builtAt = LocalDateTime.now();
+            log.info("Item search index built in {} ms, {} items.", rebuildMillis, slots.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        ItemSearchRow row = ItemSearchRow.of(item);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(row);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write(row);
+            }
+        });
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return load(match(text.toLowerCase(), pageable.getOffset(), Long.MIN_VALUE, pageable.getPageSize()));
+    }
+
+    @Override
+    public List<Item> searchAfter(String text, long afterId, int size) {
+        return load(match(text.toLowerCase(), 0, afterId, size));
+    }
+
+    private List<Long> match(String query, long skip, long afterId, int limit) {
+        List<Long> pageIds = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(query)) {
+                if (id <= afterId) {
+                    continue;
+                }
+                int slot = slots.get(id);
+                if (!available.get(slot) || !documents.get(slot).contains(query)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                pageIds.add(id);
+                if (pageIds.size() == limit) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return pageIds;
+    }
+
+    private List<Item> load(List<Long> pageIds) {
+        if (pageIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Item> items = itemRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return pageIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public ItemSearchIndexStats getStats() {
+        lock.readLock().lock();
+        try {
+            long postingsCount = postings.values().stream()
+                    .mapToLong(LongPostingList::size)
+                    .sum();
+
+            return new ItemSearchIndexStats(
+                    slots.size(),
+                    available.cardinality(),
+                    postings.size(),
+                    postingsCount,
+                    rebuildMillis,
+                    builtAt
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] candidates(String query) {
+        if (query.length() < GRAM) {
+            return allIds.toArray();
+        }
+
+        long[] result = null;
+        for (String gram : grams(query)) {
+            LongPostingList ids = postings.get(gram);
+            if (ids == null) {
+                return new long[0];
+            }
+            result = result == null ? ids.toArray() : LongPostingList.intersect(result, ids);
+            if (result.length == 0) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    private void write(ItemSearchRow row) {
+        lock.writeLock().lock();
+        try {
+            put(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(ItemSearchRow row) {
+        Document document = Document.of(row);
+        Integer slot = slots.get(row.getId());
+
+        if (slot == null) {
+            slot = documents.size();
+            slots.put(row.getId(), slot);
+            documents.add(document);
+            allIds.add(row.getId());
+            addGrams(row.getId(), document);
+        } else if (!documents.get(slot).equals(document)) {
+            removeGrams(row.getId(), documents.get(slot));
+            documents.set(slot, document);
+            addGrams(row.getId(), document);
+        }
+
+        available.set(slot, Boolean.TRUE.equals(row.getAvailable()));
+    }
+
+    private void addGrams(long id, Document document) {
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, g -> new LongPostingList()).add(id);
+        }
+    }
+
+    private void removeGrams(long id, Document document) {
+        for (String gram : document.grams()) {
+            LongPostingList ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static final class Document {
+        private final String name;
+        private final String description;
+
+        private Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        static Document of(ItemSearchRow row) {
+            return new Document(
+                    row.getName() != null ? row.getName().toLowerCase() : "",
+                    row.getDescription() != null ? row.getDescription().toLowerCase() : ""
+            );
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = NgramItemSearchEngine.grams(name);
+            grams.addAll(NgramItemSearchEngine.grams(description));
+            return grams;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Document)) {
+                return false;
+            }
+            Document other = (Document) o;
+            return name.equals(other.name) && description.equals(other.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, description);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Search over pg_trgm GIN indexes on items.name and items.description (see db/migration/postgresql).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return itemRepository.searchTrigram(text, pageable);
+    }
+
+    @Override
+    public List<Item> searchAfter(String text, long afterId, int size) {
+        return itemRepository.searchTrigramAfter(text, afterId, PageRequest.of(0, size));
+    }
+}
@@ -11,13 +11,19 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "comments")
+@NamedEntityGraph(name = Comment.LIST_GRAPH, attributeNodes = @NamedAttributeNode("author"))
 @Getter
 @Setter
 @NoArgsConstructor
 public class Comment {
+    /**
+     * Comment lists show the author name, the item is only needed by id.
+     */
+    public static final String LIST_GRAPH = "Comment.list";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(Comment.LIST_GRAPH)
     List<Comment> findAllByItemIdIs(Long itemId);
 
+    @EntityGraph(Comment.LIST_GRAPH)
+    List<Comment> findAllByItemIdIn(List<Long> itemIds);
 }
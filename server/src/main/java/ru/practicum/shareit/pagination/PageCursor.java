@@ -0,0 +1,93 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exeption.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque cursor for keyset pagination. An empty cursor means the first page.
+ * The next page cursor is returned in the X-Next-Cursor header while the page is full.
+ */
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    public static String of(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static String of(LocalDateTime created, Long id) {
+        return encode(created + SEPARATOR + id);
+    }
+
+    public static boolean isFirst(String cursor) {
+        return cursor.isEmpty();
+    }
+
+    public static long idOf(String cursor, long first) {
+        if (isFirst(cursor)) {
+            return first;
+        }
+        String[] keys = decode(cursor, 1);
+        return parseId(keys[0]);
+    }
+
+    public static long createdIdOf(String cursor) {
+        String[] keys = decode(cursor, 2);
+        return parseId(keys[1]);
+    }
+
+    public static LocalDateTime createdOf(String cursor) {
+        String[] keys = decode(cursor, 2);
+        try {
+            return LocalDateTime.parse(keys[0]);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    public static <T> ResponseEntity<List<T>> page(List<T> items, int size, Function<T, String> cursorOf) {
+        if (items.size() < size) {
+            return ResponseEntity.ok(items);
+        }
+
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOf.apply(items.get(items.size() - 1)))
+                .body(items);
+    }
+
+    private static String encode(String keys) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(keys.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, int count) {
+        String[] keys;
+        try {
+            keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+        if (keys.length != count) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+        return keys;
+    }
+
+    private static long parseId(String key) {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
@@ -15,14 +17,21 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "requests")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ItemRequest.CACHE_REGION)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class ItemRequest {
+    /**
+     * Second-level cache region, requests never change after they are created.
+     */
+    public static final String CACHE_REGION = "requests";
+
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     private String description;
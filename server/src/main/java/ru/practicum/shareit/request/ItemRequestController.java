@@ -1,9 +1,13 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.httpcache.CacheInvalidation;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 /**
@@ -18,8 +22,11 @@ public class ItemRequestController {
 
     @PostMapping
     public ItemRequestDto addNewRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                        @RequestBody ItemRequestDto itemRequestDto) {
-        return itemRequestService.addNewRequest(userId, itemRequestDto);
+                                        @RequestBody ItemRequestDto itemRequestDto,
+                                        HttpServletResponse response) {
+        ItemRequestDto added = itemRequestService.addNewRequest(userId, itemRequestDto);
+        CacheInvalidation.invalidate(response, "/requests/all");
+        return added;
     }
 
     @GetMapping
@@ -28,10 +35,16 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long requestorId,
-                                               @RequestParam(value = "from", defaultValue = "0") Long from,
-                                               @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        return itemRequestService.getAllRequests(requestorId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(
+            @RequestHeader("X-Sharer-User-Id") Long requestorId,
+            @RequestParam(value = "from", defaultValue = "0") Long from,
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "after", required = false) String after) {
+        if (after != null) {
+            List<ItemRequestDto> requests = itemRequestService.getAllRequestsAfter(requestorId, after, size);
+            return PageCursor.page(requests, size, r -> PageCursor.of(r.getCreated(), r.getId()));
+        }
+        return ResponseEntity.ok(itemRequestService.getAllRequests(requestorId, from, size));
     }
 
     @GetMapping("/{requestId}")
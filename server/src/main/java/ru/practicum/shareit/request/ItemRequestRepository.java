@@ -2,7 +2,9 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
@@ -10,4 +12,14 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     List<ItemRequest> findAllByRequestorIdIsOrderByCreatedDesc(Long requestorId);
 
     List<ItemRequest> findAllByRequestorIdIsNotOrderByCreatedDesc(Long requestorId, Pageable pageable);
+
+    List<ItemRequest> findAllByRequestorIdIsNotOrderByCreatedDescIdDesc(Long requestorId, Pageable pageable);
+
+    @Query("SELECT r " +
+            "FROM ItemRequest r " +
+            "WHERE r.requestor.id <> ?1 " +
+            "AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllOtherRequestsBefore(Long requestorId, LocalDateTime created, Long id,
+                                                 Pageable pageable);
 }
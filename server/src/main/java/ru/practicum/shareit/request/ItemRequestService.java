@@ -12,6 +12,8 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllRequests(Long userId, Long from, Integer size);
 
+    List<ItemRequestDto> getAllRequestsAfter(Long userId, String after, Integer size);
+
     ItemRequestDto getRequestById(Long requestorId, Long requestId);
 
     ItemRequest getRequestIfExist(Long requestId);
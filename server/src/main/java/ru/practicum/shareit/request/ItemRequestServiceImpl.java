@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exeption.BadRequestException;
@@ -9,11 +10,13 @@ import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.ItemDto;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -32,10 +35,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         if (itemRequestDto.getDescription() == null || itemRequestDto.getDescription().isEmpty()) {
             throw new BadRequestException("Item request description is empty.");
         }
-        User requestor = userService.getUserIfExist(userId);
+        User requestor = userService.getUserReference(userId);
 
         ItemRequest newRequest = ItemRequestMapper.dtoToRequest(itemRequestDto);
-        newRequest.setCreated(LocalDateTime.now());
+        // the database keeps microseconds, a finer value would not match the stored one in a cursor
+        newRequest.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         newRequest.setRequestor(requestor);
 
         itemRequestRepository.save(newRequest);
@@ -46,54 +50,39 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional
     @Override
     public List<ItemRequestDto> getRequestsByUserId(Long requestorId) {
-        userService.getUserIfExist(requestorId);
-
-        List<ItemRequestDto> requests = itemRequestRepository.findAllByRequestorIdIsOrderByCreatedDesc(requestorId)
-                .stream()
-                .map(ItemRequestMapper::requestToDto)
-                .collect(Collectors.toList());
-
-        List<Long> requestIds = requests.stream()
-                .map(ItemRequestDto::getId)
-                .collect(Collectors.toList());
-
-        List<ItemDto> items = itemService.getItemsByRequestIdIn(requestIds).stream()
-                .map(ItemMapper::itemToDto)
-                .collect(Collectors.toList());
-
-        return requests.stream()
-                .map(r -> getItemsToRequest(r, items))
-                .collect(Collectors.toList());
+        userService.checkUserExist(requestorId);
 
+        return withItems(itemRequestRepository.findAllByRequestorIdIsOrderByCreatedDesc(requestorId));
     }
 
     @Transactional
     @Override
     public List<ItemRequestDto> getAllRequests(Long userId, Long from, Integer size) {
-        userService.getUserIfExist(userId);
+        userService.checkUserExist(userId);
         int startPage = Math.toIntExact(from / size);
-        List<ItemRequestDto> requests = itemRequestRepository.findAllByRequestorIdIsNotOrderByCreatedDesc(userId,
-                        PageRequest.of(startPage, size)).stream()
-                .map(ItemRequestMapper::requestToDto)
-                .collect(Collectors.toList());
 
-        List<Long> requestIds = requests.stream()
-                .map(ItemRequestDto::getId)
-                .collect(Collectors.toList());
+        return withItems(itemRequestRepository.findAllByRequestorIdIsNotOrderByCreatedDesc(userId,
+                PageRequest.of(startPage, size)));
+    }
 
-        List<ItemDto> items = itemService.getItemsByRequestIdIn(requestIds).stream()
-                .map(ItemMapper::itemToDto)
-                .collect(Collectors.toList());
+    @Transactional
+    @Override
+    public List<ItemRequestDto> getAllRequestsAfter(Long userId, String after, Integer size) {
+        userService.checkUserExist(userId);
+        Pageable page = PageRequest.of(0, size);
 
-        return requests.stream()
-                .map(r -> getItemsToRequest(r, items))
-                .collect(Collectors.toList());
+        if (PageCursor.isFirst(after)) {
+            return withItems(itemRequestRepository.findAllByRequestorIdIsNotOrderByCreatedDescIdDesc(userId, page));
+        }
+
+        return withItems(itemRequestRepository.findAllOtherRequestsBefore(userId, PageCursor.createdOf(after),
+                PageCursor.createdIdOf(after), page));
     }
 
     @Transactional
     @Override
     public ItemRequestDto getRequestById(Long requestorId, Long requestId) {
-        userService.getUserIfExist(requestorId);
+        userService.checkUserExist(requestorId);
         ItemRequestDto request = ItemRequestMapper.requestToDto(getRequestIfExist(requestId));
 
         Long id = request.getId();
@@ -118,6 +107,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return request.get();
     }
 
+    private List<ItemRequestDto> withItems(List<ItemRequest> itemRequests) {
+        List<ItemRequestDto> requests = itemRequests.stream()
+                .map(ItemRequestMapper::requestToDto)
+                .collect(Collectors.toList());
+
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+
+        List<ItemDto> items = itemService.getItemsByRequestIdIn(requestIds).stream()
+                .map(ItemMapper::itemToDto)
+                .collect(Collectors.toList());
+
+        return requests.stream()
+                .map(r -> getItemsToRequest(r, items))
+                .collect(Collectors.toList());
+    }
+
     private ItemRequestDto getItemsToRequest(ItemRequestDto requestDto, List<ItemDto> items) {
         List<ItemDto> requestItems = items.stream()
                 .filter(item -> item.getRequestId().equals(requestDto.getId()))
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Node-local read-through cache of users, published as cache.* metrics with the tag cache=users.
+ * Holds detached copies, so callers can never change a cached user by mutating the returned entity.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private final Cache<Long, User> users;
+
+    public UserCache(@Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.user-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> get(Long userId) {
+        return Optional.ofNullable(users.getIfPresent(userId))
+                .map(UserCache::copy);
+    }
+
+    public boolean contains(Long userId) {
+        return users.getIfPresent(userId) != null;
+    }
+
+    public void put(User user) {
+        users.put(user.getId(), copy(user));
+    }
+
+    public void invalidate(Long userId) {
+        users.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    users.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, users, "users");
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail());
+    }
+}
@@ -3,6 +3,9 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.httpcache.CacheInvalidation;
+
+import javax.servlet.http.HttpServletResponse;
 
 import java.util.List;
 
@@ -35,14 +38,23 @@ public class UserController {
 
     @PatchMapping("/{userId}")
     public UserDto updateUser(@PathVariable Long userId,
-                              @RequestBody UserDto user) {
+                              @RequestBody UserDto user,
+                              HttpServletResponse response) {
         log.info("Update user with id {}", userId);
-        return userService.updateUser(userId, user);
+        UserDto updated = userService.updateUser(userId, user);
+        CacheInvalidation.invalidate(response, "/users/" + userId);
+        if (user.getName() != null) {
+            // comments in cached item responses carry the author name
+            CacheInvalidation.invalidate(response, "/items");
+        }
+        return updated;
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteUser(@PathVariable Long userId) {
+    public void deleteUser(@PathVariable Long userId, HttpServletResponse response) {
         log.info("Delete user with id {}", userId);
         userService.deleteUser(userId);
+        // requests of the user are deleted by cascade
+        CacheInvalidation.invalidate(response, "/users/" + userId, "/requests/all");
     }
 }
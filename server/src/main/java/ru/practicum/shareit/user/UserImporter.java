@@ -0,0 +1,46 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.bulk.ImportFailure;
+import ru.practicum.shareit.bulk.ImportRow;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class UserImporter {
+    private final UserRepository userRepository;
+
+    /**
+     * Taken emails are looked up once per chunk, so a duplicate does not fail the batch insert.
+     */
+    public void importChunk(List<ImportRow<UserDto>> rows, Consumer<ImportFailure> failures) {
+        Set<String> emails = new HashSet<>(userRepository.findEmailsIn(rows.stream()
+                .map(row -> row.getValue().getEmail())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())));
+
+        List<User> users = new ArrayList<>(rows.size());
+        for (ImportRow<UserDto> row : rows) {
+            String email = row.getValue().getEmail();
+            if (email != null && !emails.add(email)) {
+                failures.accept(new ImportFailure(row.getLine(), "User with email " + email + " already exists."));
+                continue;
+            }
+
+            User user = UserMapper.dtoToUser(row.getValue());
+            user.setId(null);
+            users.add(user);
+        }
+
+        userRepository.saveAll(users);
+        userRepository.flush();
+    }
+}
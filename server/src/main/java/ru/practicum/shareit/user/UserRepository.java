@@ -1,6 +1,14 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("SELECT u.email " +
+            "FROM User u " +
+            "WHERE u.email IN ?1")
+    List<String> findEmailsIn(Collection<String> emails);
 }
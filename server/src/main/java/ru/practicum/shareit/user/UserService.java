@@ -14,4 +14,8 @@ public interface UserService {
     void deleteUser(Long userId);
 
     User getUserIfExist(Long userId);
+
+    void checkUserExist(Long userId);
+
+    User getUserReference(Long userId);
 }
@@ -3,8 +3,13 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.request.ItemRequest;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -14,6 +19,8 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Transactional
     @Override
@@ -40,7 +47,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public UserDto updateUser(Long userId, UserDto user) {
-        User updatedUser = getUserIfExist(userId);
+        User updatedUser = findUser(userId);
 
         if (user.getName() != null) {
             updatedUser.setName(user.getName());
@@ -50,17 +57,67 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.save(updatedUser);
+        userCache.invalidate(userId);
         return UserMapper.userToDto(updatedUser);
     }
 
     @Transactional
     @Override
     public void deleteUser(Long userId) {
-        getUserIfExist(userId);
+        checkUserExist(userId);
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
+        evictDeletedUser(userId);
     }
 
+    @Override
     public User getUserIfExist(Long userId) {
+        Optional<User> cached = userCache.get(userId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        User user = findUser(userId);
+        userCache.put(user);
+        return user;
+    }
+
+    @Override
+    public void checkUserExist(Long userId) {
+        if (!userCache.contains(userId) && !userRepository.existsById(userId)) {
+            throw new NotFoundException("User with id " + userId + " does not exist");
+        }
+    }
+
+    @Override
+    public User getUserReference(Long userId) {
+        checkUserExist(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    /**
+     * The database deletes the requests of a deleted user and unlinks their items on its own, Hibernate never
+     * sees those rows change. The user entry and both cascaded regions are dropped now and once more after
+     * completion, so a read racing the commit cannot leave a stale copy behind. Users are deleted rarely.
+     */
+    private void evictDeletedUser(Long userId) {
+        Runnable evict = () -> {
+            entityManagerFactory.getCache().evict(User.class, userId);
+            entityManagerFactory.getCache().evict(ItemRequest.class);
+            entityManagerFactory.getCache().evict(Item.class);
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private User findUser(Long userId) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
             throw new NotFoundException("User with id " + userId + " does not exist");
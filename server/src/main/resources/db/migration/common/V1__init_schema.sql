@@ -1,10 +1,4 @@
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS users;
-
-CREATE TABLE IF NOT EXISTS users (
+CREATE TABLE users (
     id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name            VARCHAR(255) NOT NULL,
     email           VARCHAR(255) NOT NULL,
@@ -13,7 +7,7 @@ CREATE TABLE IF NOT EXISTS users (
     CONSTRAINT uq_user_email UNIQUE (email)
 );
 
-CREATE TABLE IF NOT EXISTS requests (
+CREATE TABLE requests (
     id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     description     VARCHAR(512) NOT NULL,
     requestor_id    BIGINT  NOT NULL,
@@ -23,7 +17,7 @@ CREATE TABLE IF NOT EXISTS requests (
     CONSTRAINT fk_requests FOREIGN KEY (requestor_id) REFERENCES users ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS items (
+CREATE TABLE items (
     id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name            VARCHAR(255) NOT NULL,
     description     VARCHAR(1000) NOT NULL,
@@ -36,7 +30,7 @@ CREATE TABLE IF NOT EXISTS items (
     CONSTRAINT fk_items_requests FOREIGN KEY (request_id) REFERENCES requests ON DELETE SET NULL
 );
 
-CREATE TABLE IF NOT EXISTS bookings (
+CREATE TABLE bookings (
     id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     start_date      TIMESTAMP,
     end_date        TIMESTAMP,
@@ -49,7 +43,7 @@ CREATE TABLE IF NOT EXISTS bookings (
     CONSTRAINT fk_booking_user FOREIGN KEY (booker_id) REFERENCES users(id)
 );
 
-CREATE TABLE IF NOT EXISTS comments (
+CREATE TABLE comments (
     id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text            VARCHAR(1500),
     item_id         BIGINT,
@@ -59,4 +53,4 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items(id),
     CONSTRAINT fk_comment_user FOREIGN KEY (author_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
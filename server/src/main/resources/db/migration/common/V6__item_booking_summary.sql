@@ -0,0 +1,33 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id         BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    last_start      TIMESTAMP,
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    next_start      TIMESTAMP,
+
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+    -- a booking removed together with its booker leaves its start behind, the row then reads as outdated
+    CONSTRAINT fk_item_booking_summary_last FOREIGN KEY (last_booking_id) REFERENCES bookings (id) ON DELETE SET NULL,
+    CONSTRAINT fk_item_booking_summary_next FOREIGN KEY (next_booking_id) REFERENCES bookings (id) ON DELETE SET NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_item_booking_summary_next_start ON item_booking_summary (next_start);
+
+-- backfill against the database clock, rows whose next booking has already started are moved by the scheduler
+INSERT INTO item_booking_summary (item_id, last_booking_id, last_booker_id, last_start,
+                                  next_booking_id, next_booker_id, next_start)
+SELECT i.id, l.id, l.booker_id, l.start_date, n.id, n.booker_id, n.start_date
+FROM items AS i
+LEFT JOIN (SELECT bk.id, bk.item_id, bk.booker_id, bk.start_date,
+                  ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date DESC) AS rn
+           FROM bookings AS bk
+           WHERE bk.status = 'APPROVED'
+           AND bk.start_date < LOCALTIMESTAMP) AS l ON l.item_id = i.id AND l.rn = 1
+LEFT JOIN (SELECT bk.id, bk.item_id, bk.booker_id, bk.start_date,
+                  ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date ASC) AS rn
+           FROM bookings AS bk
+           WHERE bk.status = 'APPROVED'
+           AND bk.start_date > LOCALTIMESTAMP) AS n ON n.item_id = i.id AND n.rn = 1;
@@ -0,0 +1,6 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker ON bookings (booker_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id);
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created);
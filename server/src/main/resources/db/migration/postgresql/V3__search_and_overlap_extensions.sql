@@ -0,0 +1,37 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Bookings written before the constraint may already overlap, and an exclusion constraint cannot be added
+-- NOT VALID. Conflicts are resolved first: per item the approved booking wins over a waiting one, then the
+-- earlier booking wins, the loser is rejected. Each pass only rejects bookings beaten by one that nothing
+-- beats itself, so a booking freed by an earlier rejection is kept.
+DO $$
+DECLARE
+    rejected INTEGER;
+BEGIN
+    LOOP
+        UPDATE bookings AS b
+        SET status = 'REJECTED'
+        WHERE b.status IN ('WAITING', 'APPROVED')
+        AND EXISTS (SELECT 1
+                    FROM bookings AS w
+                    WHERE w.item_id = b.item_id
+                    AND w.status IN ('WAITING', 'APPROVED')
+                    AND tsrange(w.start_date, w.end_date) && tsrange(b.start_date, b.end_date)
+                    AND (w.status = 'APPROVED' AND b.status = 'WAITING' OR w.status = b.status AND w.id < b.id)
+                    AND NOT EXISTS (SELECT 1
+                                    FROM bookings AS h
+                                    WHERE h.item_id = w.item_id
+                                    AND h.status IN ('WAITING', 'APPROVED')
+                                    AND tsrange(h.start_date, h.end_date) && tsrange(w.start_date, w.end_date)
+                                    AND (h.status = 'APPROVED' AND w.status = 'WAITING'
+                                        OR h.status = w.status AND h.id < w.id)));
+        GET DIAGNOSTICS rejected = ROW_COUNT;
+        EXIT WHEN rejected = 0;
+    END LOOP;
+END $$;
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS ex_bookings_item_period;
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+    EXCLUDE USING GIST (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,4 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_name_trgm ON items USING GIN (name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_description_trgm ON items USING GIN (description gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_lower_name_trgm ON items USING GIN (LOWER(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_lower_description_trgm ON items USING GIN (LOWER(description) gin_trgm_ops);
@@ -0,0 +1,130 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Insert throughput of bookings with one round trip per row against JDBC batches of pooled-lo ids.
+ * Run with: mvn -pl server test -Dtest=BookingInsertBenchmarkTest -Dbenchmark=true
+ * Optional: -Dbenchmark.bookings=100000 -Dbenchmark.chunk=1000,
+ * -Dbenchmark.postgres=true to run against the devpg database, the inserts are rolled back.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingInsertBenchmarkTest {
+    private static final int BOOKINGS = Integer.getInteger("benchmark.bookings", 100_000);
+    private static final int CHUNK = Integer.getInteger("benchmark.chunk", 1000);
+    private static final boolean POSTGRES = Boolean.getBoolean("benchmark.postgres");
+
+    @Test
+    void insertBookings_shouldBeFaster_whenInsertsAreBatched() {
+        Result rowByRow = run(1);
+        Result batched = run(50);
+
+        System.out.printf("bookings=%d chunk=%d database=%s%n", BOOKINGS, CHUNK, POSTGRES ? "postgres" : "h2");
+        System.out.println("row by row: " + rowByRow);
+        System.out.println("batched:    " + batched);
+        assertEquals(BOOKINGS, rowByRow.inserted);
+        assertEquals(BOOKINGS, batched.inserted);
+    }
+
+    /**
+     * Starts a server context with the given JDBC batch size and persists all bookings in one rolled back
+     * transaction, flushing and clearing the persistence context every chunk.
+     */
+    static Result run(int batchSize) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--logging.level.root=WARN"));
+        if (!POSTGRES) {
+            args.addAll(List.of(
+                    "--spring.profiles.active=benchmark",
+                    "--spring.datasource.driverClassName=org.h2.Driver",
+                    "--spring.datasource.url=jdbc:h2:mem:benchmark" + batchSize + ";DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.username=test",
+                    "--spring.datasource.password=test",
+                    "--shareit.search.engine=database"));
+        }
+
+        ConfigurableApplicationContext server = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        try {
+            EntityManager entityManager = SharedEntityManagerCreator
+                    .createSharedEntityManager(server.getBean(EntityManagerFactory.class));
+            TransactionTemplate transaction = new TransactionTemplate(server.getBean(PlatformTransactionManager.class));
+
+            long start = System.nanoTime();
+            Integer inserted = transaction.execute(status -> {
+                int count = persistBookings(entityManager);
+                status.setRollbackOnly();
+                return count;
+            });
+            return new Result(inserted, Duration.ofNanos(System.nanoTime() - start));
+        } finally {
+            server.close();
+        }
+    }
+
+    private static int persistBookings(EntityManager entityManager) {
+        User owner = new User(null, "benchmark-owner", "benchmark-owner@email");
+        User booker = new User(null, "benchmark-booker", "benchmark-booker@email");
+        Item item = new Item("benchmark", "benchmark item", true);
+        item.setOwner(owner);
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(item);
+
+        // one hour apart, so the overlap exclusion constraint on postgres accepts every row
+        LocalDateTime base = LocalDateTime.now().plusYears(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking(base.plusHours(i), base.plusHours(i).plusMinutes(30), Status.WAITING);
+            booking.setItem(item);
+            booking.setBooker(booker);
+            entityManager.persist(booking);
+
+            if ((i + 1) % CHUNK == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                item = entityManager.getReference(Item.class, item.getId());
+                booker = entityManager.getReference(User.class, booker.getId());
+            }
+        }
+        entityManager.flush();
+        return BOOKINGS;
+    }
+
+    static class Result {
+        final long inserted;
+        final Duration elapsed;
+
+        Result(long inserted, Duration elapsed) {
+            this.inserted = inserted;
+            this.elapsed = elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("inserted=%d elapsed=%dms throughput=%.0f rows/s",
+                    inserted, elapsed.toMillis(), inserted * 1000.0 / Math.max(1, elapsed.toMillis()));
+        }
+    }
+}
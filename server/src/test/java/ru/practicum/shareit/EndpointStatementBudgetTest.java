@@ -0,0 +1,300 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingServiceImpl;
+import ru.practicum.shareit.booking.ItemBookingSummaries;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.DatabaseItemSearchEngine;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Declared statement budgets of the read and write paths behind each endpoint.
+ */
+@DataJpaTest
+@Import({BookingServiceImpl.class, ItemServiceImpl.class, DatabaseItemSearchEngine.class, UserServiceImpl.class,
+        UserCache.class, BookingIntervalIndex.class, ItemBookingSummaries.class, ItemRequestServiceImpl.class})
+@TestPropertySource(properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"})
+public class EndpointStatementBudgetTest {
+    private static final int OTHER_ITEMS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    User owner;
+    User booker;
+    User otherOwner;
+    Item item;
+    ItemRequest request;
+    Booking waitingBooking;
+
+    @BeforeEach
+    void setup() {
+        LocalDateTime now = LocalDateTime.now();
+
+        owner = entityManager.persist(new User(null, "owner", "owner@email"));
+        booker = entityManager.persist(new User(null, "booker", "booker@email"));
+
+        request = new ItemRequest("need a drill");
+        request.setRequestor(booker);
+        request.setCreated(now.minusDays(5));
+        entityManager.persist(request);
+
+        item = new Item("drill", "description", true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        entityManager.persist(item);
+
+        Booking lastBooking = persistBooking(item, booker, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        Booking nextBooking = persistBooking(item, booker, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+        waitingBooking = persistBooking(item, booker, now.plusDays(3), now.plusDays(4), Status.WAITING);
+        entityManager.persist(ItemBookingSummary.of(item.getId(), lastBooking, nextBooking));
+        persistComment(item, booker, "good drill", now.minusDays(1));
+
+        // a second owner with a full page of items, each booked and commented by its own user
+        otherOwner = entityManager.persist(new User(null, "other owner", "other.owner@email"));
+        for (int i = 0; i < OTHER_ITEMS; i++) {
+            User otherBooker = entityManager.persist(new User(null, "booker" + i, "booker" + i + "@email"));
+            Item otherItem = new Item("saw" + i, "description" + i, true);
+            otherItem.setOwner(otherOwner);
+            entityManager.persist(otherItem);
+
+            Booking last = persistBooking(otherItem, otherBooker, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+            Booking next = persistBooking(otherItem, otherBooker, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+            entityManager.persist(ItemBookingSummary.of(otherItem.getId(), last, next));
+            persistComment(otherItem, otherBooker, "text" + i, now.minusDays(1));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @StatementBudget(3)
+    void itemDetail_shouldStayInBudget_whenUserIsOwner() {
+        ItemDto actual = itemService.getItem(owner.getId(), item.getId());
+
+        assertEquals("booker", actual.getComments().get(0).getAuthorName());
+        assertNotNull(actual.getLastBooking());
+        assertNotNull(actual.getNextBooking());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void itemDetail_shouldStayInBudget_whenUserIsNotOwner() {
+        ItemDto actual = itemService.getItem(booker.getId(), item.getId());
+
+        assertEquals(1, actual.getComments().size());
+        assertNull(actual.getLastBooking());
+    }
+
+    @Test
+    @StatementBudget(3)
+    void ownerItems_shouldStayInBudget_whenItemsHaveCommentsAndBookings() {
+        List<ItemDto> actual = itemService.getItemsByOwner(owner.getId(), 0L, 10);
+
+        assertEquals(1, actual.size());
+        assertEquals("booker", actual.get(0).getComments().get(0).getAuthorName());
+    }
+
+    // a full page takes the same statements as a single item
+    @Test
+    @StatementBudget(3)
+    void ownerItems_shouldNotDependOnPageSize_whenPageHasManyItems() {
+        List<ItemDto> actual = itemService.getItemsByOwner(otherOwner.getId(), 0L, OTHER_ITEMS);
+
+        assertEquals(OTHER_ITEMS, actual.size());
+        for (ItemDto item : actual) {
+            assertAll(
+                    () -> assertEquals(1, item.getComments().size()),
+                    () -> assertNotNull(item.getLastBooking()),
+                    () -> assertNotNull(item.getNextBooking())
+            );
+        }
+    }
+
+    // ids come from pooled sequences, a write may need one sequence call when the block runs out
+    @Test
+    @StatementBudget(4)
+    void addComment_shouldStayInBudget_whenUserBookedItem() {
+        CommentDto actual = itemService.addComment(booker.getId(), item.getId(),
+                new CommentDto(null, "still good", null, null));
+
+        assertEquals("booker", actual.getAuthorName());
+    }
+
+    @Test
+    @StatementBudget(1)
+    void bookingDetail_shouldStayInBudget_whenUserIsBooker() {
+        BookingDto actual = bookingService.getBookingById(booker.getId(), waitingBooking.getId());
+
+        assertEquals("drill", actual.getItem().getName());
+    }
+
+    // only the booking and its item, the user is checked with an exists query
+    @Test
+    @StatementBudget(value = 2, entityLoads = 2)
+    void bookingDetail_shouldStayInBudget_whenUserIsStranger() {
+        assertThrows(
+                NotFoundException.class,
+                () -> bookingService.getBookingById(Long.MAX_VALUE, waitingBooking.getId())
+        );
+    }
+
+    @Test
+    @StatementBudget(2)
+    void ownerBookingList_shouldStayInBudget_whenOwnerHasBookings() {
+        List<BookingDto> actual = bookingService.getBookingsByOwner(owner.getId(), "ALL", 0L, 10);
+
+        assertEquals(3, actual.size());
+    }
+
+    // rows are selected into DTOs, no booking, item or booker is loaded into the persistence context
+    @Test
+    @StatementBudget(value = 2, entityLoads = 0)
+    void ownerBookingList_shouldNotLoadEntities_whenBookersDiffer() {
+        List<BookingDto> actual = bookingService.getBookingsByOwner(otherOwner.getId(), "ALL", 0L, 20);
+
+        assertEquals(2 * OTHER_ITEMS, actual.size());
+        assertEquals(otherOwner.getId(), actual.get(0).getItem().getOwnerId());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void ownerBookingExport_shouldStayInBudget_whenOwnerHasBookings() {
+        List<BookingDto> actual = new ArrayList<>();
+        bookingService.exportBookingsByOwner(owner.getId(), "ALL", actual::add);
+
+        assertEquals(3, actual.size());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void ownerItemExport_shouldStayInBudget_whenItemAnswersRequest() {
+        List<ItemDto> actual = new ArrayList<>();
+        itemService.exportItemsByOwner(owner.getId(), actual::add);
+
+        assertEquals(1, actual.size());
+        assertEquals(request.getId(), actual.get(0).getRequestId());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void bookerBookingList_shouldStayInBudget_whenBookerHasBookings() {
+        List<BookingDto> actual = bookingService.getUserBookings(booker.getId(), "ALL", 0L, 10);
+
+        assertEquals(3, actual.size());
+    }
+
+    @Test
+    @StatementBudget(5)
+    void saveBooking_shouldStayInBudget_whenPeriodIsFree() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingDto booking = new BookingDto(null, now.plusDays(10), now.plusDays(11), item.getId(), null, null, null);
+
+        BookingDto actual = bookingService.saveBooking(booker.getId(), booking);
+
+        assertEquals(Status.WAITING, actual.getStatus());
+    }
+
+    // the summary row of the item is locked and updated in the same transaction
+    @Test
+    @StatementBudget(4)
+    void approveBooking_shouldStayInBudget_whenUserIsOwner() {
+        BookingDto actual = bookingService.approveBooking(owner.getId(), waitingBooking.getId(), true);
+
+        assertEquals(Status.APPROVED, actual.getStatus());
+    }
+
+    @Test
+    @StatementBudget(3)
+    void ownRequests_shouldStayInBudget_whenRequestHasItems() {
+        List<ItemRequestDto> actual = itemRequestService.getRequestsByUserId(booker.getId());
+
+        assertEquals(1, actual.get(0).getItems().size());
+    }
+
+    @Test
+    @StatementBudget(3)
+    void otherRequests_shouldStayInBudget_whenRequestHasItems() {
+        List<ItemRequestDto> actual = itemRequestService.getAllRequests(owner.getId(), 0L, 10);
+
+        assertEquals(1, actual.get(0).getItems().size());
+    }
+
+    @Test
+    @StatementBudget(3)
+    void requestDetail_shouldStayInBudget_whenRequestHasItems() {
+        ItemRequestDto actual = itemRequestService.getRequestById(owner.getId(), request.getId());
+
+        assertEquals(1, actual.getItems().size());
+    }
+
+    @Test
+    @StatementBudget(5)
+    void persistUsers_shouldBatchInserts_whenIdsComeFromPooledSequence() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(entityManager.persist(new User(null, "pooled" + i, "pooled" + i + "@email")).getId());
+        }
+        entityManager.flush();
+
+        Long persisted = entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(u) FROM User u WHERE u.name LIKE 'pooled%'", Long.class)
+                .getSingleResult();
+        assertEquals(100, persisted);
+        // pooled-lo hands out a block of 50 ids per sequence call, so the ids follow each other with no gap
+        for (int i = 1; i < ids.size(); i++) {
+            assertEquals(ids.get(i - 1) + 1, ids.get(i));
+        }
+    }
+
+    private Booking persistBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking(start, end, status);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        return entityManager.persist(booking);
+    }
+
+    private void persistComment(Item item, User author, String text, LocalDateTime created) {
+        Comment comment = new Comment(text, created);
+        comment.setItem(item);
+        comment.setAuthor(author);
+        entityManager.persist(comment);
+    }
+}
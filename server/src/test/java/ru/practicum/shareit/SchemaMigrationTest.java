@@ -0,0 +1,54 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@TestPropertySource(properties = {"db.name=test"})
+public class SchemaMigrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void migrate_shouldCreateHotPathIndexes_whenApplied() {
+        List<String> indexes = entityManager.getEntityManager()
+                .createNativeQuery("SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES")
+                .getResultList();
+
+        assertTrue(indexes.containsAll(List.of(
+                "ix_bookings_item_status_start",
+                "ix_bookings_booker",
+                "ix_items_owner",
+                "ix_items_request",
+                "ix_comments_item",
+                "ix_requests_requestor_created",
+                "ix_item_booking_summary_next_start"
+        )));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void migrate_shouldCreatePooledIdSequences_whenApplied() {
+        List<Object[]> sequences = entityManager.getEntityManager()
+                .createNativeQuery("SELECT LOWER(SEQUENCE_NAME), INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES")
+                .getResultList();
+        Map<String, Long> increments = sequences.stream()
+                .collect(Collectors.toMap(s -> (String) s[0], s -> ((Number) s[1]).longValue()));
+
+        for (String table : List.of("users", "requests", "items", "bookings", "comments")) {
+            assertEquals(50L, increments.get(table + "_seq"), table);
+        }
+    }
+}
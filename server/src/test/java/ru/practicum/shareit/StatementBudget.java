@@ -0,0 +1,22 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound of JDBC statements a test method may prepare, pending writes are flushed and counted too.
+ * Optionally also bounds the entities it may load, for paths meant to read projections only.
+ * The test context needs {@code spring.jpa.properties.hibernate.generate_statistics=true}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(StatementBudgetExtension.class)
+public @interface StatementBudget {
+    long value();
+
+    long entityLoads() default Long.MAX_VALUE;
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Counts statements around the test method only, so the {@code @BeforeEach} fixtures stay out of the budget.
+ */
+public class StatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        Statistics statistics = statistics(context);
+        assertTrue(statistics.isStatisticsEnabled(),
+                "Statement budget needs spring.jpa.properties.hibernate.generate_statistics=true");
+        statistics.clear();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        EntityManagerFactory entityManagerFactory = entityManagerFactory(context);
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            entityManager.flush();
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        StatementBudget budget = context.getRequiredTestMethod().getAnnotation(StatementBudget.class);
+        long actual = statistics.getPrepareStatementCount();
+        if (actual > budget.value()) {
+            fail(String.format("%s prepared %d statements, budget is %d, queries: %s",
+                    context.getDisplayName(), actual, budget.value(), String.join("; ", statistics.getQueries())));
+        }
+        long loaded = statistics.getEntityLoadCount();
+        if (loaded > budget.entityLoads()) {
+            fail(String.format("%s loaded %d entities, budget is %d",
+                    context.getDisplayName(), loaded, budget.entityLoads()));
+        }
+    }
+
+    private static Statistics statistics(ExtensionContext context) {
+        return entityManagerFactory(context).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static EntityManagerFactory entityManagerFactory(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(EntityManagerFactory.class);
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    BookingIntervalIndex index;
+    LocalDateTime start;
+    Item item;
+
+    @BeforeEach
+    void setup() {
+        index = new BookingIntervalIndex(bookingRepository, 10, Duration.ofMinutes(1));
+        start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        item = new Item("name", "description", true);
+        item.setId(1L);
+
+        Mockito.when(bookingRepository.findItemIntervals(1L, BookingIntervalIndex.ACTIVE_STATUSES))
+                .thenReturn(List.of(
+                        new BookingInterval(1L, start.plusDays(4), start.plusDays(5), Status.APPROVED),
+                        new BookingInterval(2L, start, start.plusDays(2), Status.WAITING)
+                ));
+    }
+
+    @Test
+    void overlaps_shouldReturnTrue_whenPeriodIntersectsBooking() {
+        assertTrue(index.overlaps(1L, start.plusDays(1), start.plusDays(3)));
+        assertTrue(index.overlaps(1L, start.minusDays(1), start.plusDays(6)));
+        assertTrue(index.overlaps(1L, start.plusHours(1), start.plusHours(2)));
+    }
+
+    @Test
+    void overlaps_shouldReturnFalse_whenPeriodIsBetweenOrTouchesBookings() {
+        assertFalse(index.overlaps(1L, start.plusDays(2), start.plusDays(4)));
+        assertFalse(index.overlaps(1L, start.minusDays(1), start));
+        assertFalse(index.overlaps(1L, start.plusDays(5), start.plusDays(6)));
+    }
+
+    @Test
+    void overlaps_shouldLoadTimelineOnce_whenPeriodsAreFree() {
+        index.overlaps(1L, start.plusDays(2), start.plusDays(3));
+        index.overlaps(1L, start.plusDays(5), start.plusDays(6));
+
+        verify(bookingRepository, times(1)).findItemIntervals(1L, BookingIntervalIndex.ACTIVE_STATUSES);
+    }
+
+    @Test
+    void overlaps_shouldReloadTimeline_whenBookingWasFreedOnOtherNode() {
+        index.getTimeline(1L);
+        Mockito.when(bookingRepository.findItemIntervals(1L, BookingIntervalIndex.ACTIVE_STATUSES))
+                .thenReturn(List.of(new BookingInterval(1L, start.plusDays(4), start.plusDays(5), Status.APPROVED)));
+
+        assertFalse(index.overlaps(1L, start, start.plusDays(1)));
+        verify(bookingRepository, times(2)).findItemIntervals(1L, BookingIntervalIndex.ACTIVE_STATUSES);
+    }
+
+    @Test
+    void getTimeline_shouldReload_whenTimelineExpired() {
+        BookingIntervalIndex expiring = new BookingIntervalIndex(bookingRepository, 10, Duration.ZERO);
+
+        expiring.getTimeline(1L);
+        expiring.getTimeline(1L);
+
+        verify(bookingRepository, times(2)).findItemIntervals(1L, BookingIntervalIndex.ACTIVE_STATUSES);
+    }
+
+    @Test
+    void add_shouldApplyToTimeline_whenCommittedWhileTimelineLoads() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(bookingRepository.findItemIntervals(1L, BookingIntervalIndex.ACTIVE_STATUSES))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await();
+                    return List.of(new BookingInterval(1L, start.plusDays(4), start.plusDays(5), Status.APPROVED));
+                });
+        Booking booking = new Booking(start.plusDays(7), start.plusDays(8), Status.WAITING);
+        booking.setId(3L);
+        booking.setItem(item);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ItemTimeline> load = executor.submit(() -> index.getTimeline(1L));
+            loading.await();
+            Future<?> commit = executor.submit(() -> index.add(booking));
+            Thread.sleep(50);
+            release.countDown();
+            load.get(5, TimeUnit.SECONDS);
+            commit.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, index.getTimeline(1L).size());
+    }
+
+    @Test
+    void add_shouldBlockPeriod_whenBookingSaved() {
+        assertFalse(index.overlaps(1L, start.plusDays(2), start.plusDays(4)));
+
+        Booking booking = new Booking(start.plusDays(3), start.plusDays(4), Status.WAITING);
+        booking.setId(3L);
+        booking.setItem(item);
+        index.add(booking);
+
+        assertTrue(index.getTimeline(1L).overlaps(start.plusDays(2), start.plusDays(4)));
+        assertEquals(3, index.getTimeline(1L).size());
+    }
+
+    @Test
+    void remove_shouldFreePeriod_whenBookingRejected() {
+        Booking booking = new Booking(start, start.plusDays(2), Status.REJECTED);
+        booking.setId(2L);
+        booking.setItem(item);
+        index.overlaps(1L, start, start.plusDays(1));
+
+        index.remove(booking);
+
+        assertFalse(index.overlaps(1L, start, start.plusDays(1)));
+    }
+
+    @Test
+    void getBusyPeriods_shouldReturnClippedPeriods_whenRangeCutsBookings() {
+        List<BookingPeriod> busy = index.getBusyPeriods(1L, start.plusDays(1), start.plusDays(10));
+
+        assertEquals(List.of(
+                new BookingPeriod(start.plusDays(1), start.plusDays(2)),
+                new BookingPeriod(start.plusDays(4), start.plusDays(5))
+        ), busy);
+    }
+}
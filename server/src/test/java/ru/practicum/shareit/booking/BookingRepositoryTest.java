@@ -14,8 +14,10 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -91,17 +93,42 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerIdOrderByIdDesc_shouldReturnListOfBookings_whenFound() {
+    void findItemIntervals_shouldReturnActiveBookings_whenFound() {
+        List<BookingInterval> intervals = bookingRepository
+                .findItemIntervals(item1.getId(), List.of(Status.WAITING, Status.APPROVED));
+
+        assertEquals(2, intervals.size());
+    }
+
+    @Test
+    void getItemsLastBookings_shouldReturnOneBookingPerItem_whenFound() {
+        List<Booking> actualBookings = bookingRepository
+                .getItemsLastBookings(List.of(item1.getId(), item2.getId()), LocalDateTime.now());
+
+        assertEquals(1, actualBookings.size());
+        assertEquals(lastBooking.getId(), actualBookings.get(0).getId());
+    }
+
+    @Test
+    void getItemsNextBookings_shouldReturnEmptyList_whenOnlyWaitingBookings() {
         List<Booking> actualBookings = bookingRepository
-                .findAllByBookerIdIsOrderByIdDesc(booker.getId(), PageRequest.of(0, 10));
+                .getItemsNextBookings(List.of(item1.getId(), item2.getId()), LocalDateTime.now());
+
+        assertTrue(actualBookings.isEmpty());
+    }
+
+    @Test
+    void findAllByBookerIdOrderByIdDesc_shouldReturnListOfBookings_whenFound() {
+        List<BookingRow> actualBookings = bookingRepository
+                .findAllBookerBookings(booker.getId(), Long.MAX_VALUE, PageRequest.of(0, 10));
 
         assertEquals(2, actualBookings.size());
     }
 
     @Test
     void findAllByBookerIdOrderByIdDesc_shouldReturnEmptyList_whenNotFound() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllByBookerIdIsOrderByIdDesc(owner.getId(), PageRequest.of(0, 10));
+        List<BookingRow> actualBookings = bookingRepository
+                .findAllBookerBookings(owner.getId(), Long.MAX_VALUE, PageRequest.of(0, 10));
 
         assertTrue(actualBookings.isEmpty());
     }
@@ -111,25 +138,27 @@ public class BookingRepositoryTest {
         lastBooking.setStatus(Status.REJECTED);
         bookingRepository.save(lastBooking);
 
-        List<Booking> actualBookings = bookingRepository.findAllRejectedBookings(booker.getId());
+        List<BookingRow> actualBookings = bookingRepository.findAllRejectedBookings(booker.getId(), Long.MAX_VALUE, PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
     @Test
     void findAllWaiting_shouldReturnListOfBookings_whenInvoked() {
-        List<Booking> actualBookings = bookingRepository.findAllWaitingBookings(booker.getId());
+        List<BookingRow> actualBookings = bookingRepository.findAllWaitingBookings(booker.getId(), Long.MAX_VALUE, PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
     @Test
     void findAllFutureBookings_shouldReturnListOfBookings_whenInvoked() {
-        List<Booking> actualBookings = bookingRepository.findAllFutureBookings(booker.getId(), LocalDateTime.now());
+        List<BookingRow> actualBookings = bookingRepository.findAllFutureBookings(booker.getId(), Long.MAX_VALUE,
+                LocalDateTime.now(), PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
     @Test
     void findAllPastBookings_shouldReturnListOfBookings_whenInvoked() {
-        List<Booking> actualBookings = bookingRepository.findAllPastBookings(booker.getId(), LocalDateTime.now());
+        List<BookingRow> actualBookings = bookingRepository.findAllPastBookings(booker.getId(), Long.MAX_VALUE,
+                LocalDateTime.now(), PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
@@ -138,28 +167,31 @@ public class BookingRepositoryTest {
         nextBooking.setStart(LocalDateTime.now().minusDays(1));
         bookingRepository.save(nextBooking);
 
-        List<Booking> actualBookings = bookingRepository.findAllCurrentBookings(booker.getId(), LocalDateTime.now());
+        List<BookingRow> actualBookings = bookingRepository.findAllCurrentBookings(booker.getId(), Long.MAX_VALUE,
+                LocalDateTime.now(), PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
     @Test
     void findAllOwnersBookings_shouldReturnListOfBookings_whenInvoked() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllOwnerBookings(owner.getId(), PageRequest.of(0, 10));
+        List<BookingRow> actualBookings = bookingRepository
+                .findAllOwnerBookings(owner.getId(), Long.MAX_VALUE, PageRequest.of(0, 10));
         assertEquals(2, actualBookings.size());
     }
 
     @Test
     void findAllOwnersPastBookings_shouldReturnListOfBookings_whenInvoked() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllOwnerPastBookings(owner.getId(), LocalDateTime.now());
+        List<BookingRow> actualBookings = bookingRepository
+                .findAllOwnerPastBookings(owner.getId(), Long.MAX_VALUE,
+                        LocalDateTime.now(), PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
     @Test
     void findAllOwnersFutureBookings_shouldReturnListOfBookings_whenInvoked() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllOwnerFutureBookings(owner.getId(), LocalDateTime.now());
+        List<BookingRow> actualBookings = bookingRepository
+                .findAllOwnerFutureBookings(owner.getId(), Long.MAX_VALUE,
+                        LocalDateTime.now(), PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
@@ -168,8 +200,9 @@ public class BookingRepositoryTest {
         nextBooking.setStart(LocalDateTime.now().minusDays(1));
         bookingRepository.save(nextBooking);
 
-        List<Booking> actualBookings = bookingRepository
-                .findAllOwnerCurrentBookings(owner.getId(), LocalDateTime.now());
+        List<BookingRow> actualBookings = bookingRepository
+                .findAllOwnerCurrentBookings(owner.getId(), Long.MAX_VALUE,
+                        LocalDateTime.now(), PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
@@ -178,17 +211,46 @@ public class BookingRepositoryTest {
         lastBooking.setStatus(Status.REJECTED);
         bookingRepository.save(lastBooking);
 
-        List<Booking> actualBookings = bookingRepository
-                .findAllOwnerRejectedBookings(owner.getId());
+        List<BookingRow> actualBookings = bookingRepository
+                .findAllOwnerRejectedBookings(owner.getId(), Long.MAX_VALUE, PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
     @Test
     void findAllOwnersWaiting_shouldReturnListOfBookings_whenInvoked() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllOwnerWaitingBookings(owner.getId());
+        List<BookingRow> actualBookings = bookingRepository
+                .findAllOwnerWaitingBookings(owner.getId(), Long.MAX_VALUE, PageRequest.of(0, 10));
         assertEquals(1, actualBookings.size());
     }
 
+    @Test
+    void findAllBookerBookings_shouldReturnOlderBookings_whenAfterIdGiven() {
+        List<BookingRow> firstPage = bookingRepository
+                .findAllBookerBookings(booker.getId(), Long.MAX_VALUE, PageRequest.of(0, 1));
+        List<BookingRow> secondPage = bookingRepository
+                .findAllBookerBookings(booker.getId(), firstPage.get(0).getId(), PageRequest.of(0, 1));
+
+        assertEquals(nextBooking.getId(), firstPage.get(0).getId());
+        assertEquals(lastBooking.getId(), secondPage.get(0).getId());
+    }
 
+    @Test
+    void existsByBookerIdAndItemIdAndEndBefore_shouldReturnTrue_whenPastBookingFound() {
+        assertTrue(bookingRepository.existsByBookerIdAndItemIdAndEndBefore(booker.getId(), item1.getId(),
+                LocalDateTime.now()));
+    }
+
+    @Test
+    void existsByBookerIdAndItemIdAndEndBefore_shouldReturnFalse_whenItemNotBooked() {
+        assertFalse(bookingRepository.existsByBookerIdAndItemIdAndEndBefore(booker.getId(), item2.getId(),
+                LocalDateTime.now()));
+    }
+
+    @Test
+    void findWithItemById_shouldReturnBookingWithItem_whenFound() {
+        Optional<Booking> actualBooking = bookingRepository.findWithItemById(lastBooking.getId());
+
+        assertTrue(actualBooking.isPresent());
+        assertEquals(owner.getId(), actualBooking.get().getItem().getOwner().getId());
+    }
 }
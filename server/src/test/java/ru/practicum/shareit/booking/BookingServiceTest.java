@@ -7,6 +7,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.TestPropertySource;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.exeption.BadRequestException;
@@ -17,6 +18,7 @@ import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +38,10 @@ public class BookingServiceTest {
     private UserService userService;
     @Mock
     private ItemService itemService;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemBookingSummaries itemBookingSummaries;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -91,7 +97,7 @@ public class BookingServiceTest {
     void createNewBooking_shouldReturnBooking_whenInvoked() {
         Mockito.when(itemService.getItemIfExist(anyLong()))
                 .thenReturn(item);
-        Mockito.when(userService.getUserIfExist(anyLong()))
+        Mockito.when(userService.getUserReference(anyLong()))
                 .thenReturn(booker);
         Mockito.when(bookingRepository.save(any(Booking.class)))
                 .thenReturn(bookingToReturn);
@@ -106,7 +112,7 @@ public class BookingServiceTest {
     void createNewBooking_shouldThrowsUserVerificationException_whenBookerIsOwner() {
         Mockito.when(itemService.getItemIfExist(anyLong()))
                 .thenReturn(item);
-        Mockito.when(userService.getUserIfExist(anyLong()))
+        Mockito.when(userService.getUserReference(anyLong()))
                 .thenReturn(owner);
 
         assertThrows(
@@ -122,7 +128,7 @@ public class BookingServiceTest {
 
         Mockito.when(itemService.getItemIfExist(anyLong()))
                 .thenReturn(item);
-        Mockito.when(userService.getUserIfExist(anyLong()))
+        Mockito.when(userService.getUserReference(anyLong()))
                 .thenReturn(booker);
 
         assertThrows(
@@ -133,15 +139,57 @@ public class BookingServiceTest {
     }
 
     @Test
-    void approveBooking_shouldReturnApprovedBooking_whenApproved() {
-        Mockito.when(bookingRepository.findById(anyLong()))
-                .thenReturn(Optional.of(bookingToSave));
+    void createNewBooking_shouldThrowsBadRequestException_whenPeriodOverlaps() {
+        Mockito.when(itemService.getItemIfExist(anyLong()))
+                .thenReturn(item);
+        Mockito.when(userService.getUserReference(anyLong()))
+                .thenReturn(booker);
+        Mockito.when(bookingIntervalIndex.overlaps(item.getId(), bookingDto.getStart(), bookingDto.getEnd()))
+                .thenReturn(true);
 
-        Mockito.when(userService.getUserIfExist(1L))
-                .thenReturn(owner);
+        assertThrows(
+                BadRequestException.class,
+                () -> bookingService.saveBooking(2L, bookingDto)
+        );
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
 
+    @Test
+    void createNewBooking_shouldThrowsBadRequestException_whenExclusionConstraintRejectsPeriod() {
         Mockito.when(itemService.getItemIfExist(anyLong()))
                 .thenReturn(item);
+        Mockito.when(userService.getUserReference(anyLong()))
+                .thenReturn(booker);
+        Mockito.when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("conflict",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(
+                BadRequestException.class,
+                () -> bookingService.saveBooking(2L, bookingDto)
+        );
+    }
+
+    @Test
+    void createNewBooking_shouldRethrow_whenOtherConstraintIsViolated() {
+        Mockito.when(itemService.getItemIfExist(anyLong()))
+                .thenReturn(item);
+        Mockito.when(userService.getUserReference(anyLong()))
+                .thenReturn(booker);
+        Mockito.when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("not null",
+                        new SQLException("null value in column \"booker_id\"", "23502")));
+
+        assertThrows(
+                DataIntegrityViolationException.class,
+                () -> bookingService.saveBooking(2L, bookingDto)
+        );
+    }
+
+    @Test
+    void approveBooking_shouldReturnApprovedBooking_whenApproved() {
+        Mockito.when(bookingRepository.findWithItemById(anyLong()))
+                .thenReturn(Optional.of(bookingToSave));
 
         bookingToReturn.setStatus(Status.APPROVED);
 
@@ -157,15 +205,9 @@ public class BookingServiceTest {
     @Test
     void approveBooking_shouldReturnRejectedBooking_whenRejected() {
 
-        Mockito.when(bookingRepository.findById(anyLong()))
+        Mockito.when(bookingRepository.findWithItemById(anyLong()))
                 .thenReturn(Optional.of(bookingToSave));
 
-        Mockito.when(userService.getUserIfExist(1L))
-                .thenReturn(owner);
-
-        Mockito.when(itemService.getItemIfExist(anyLong()))
-                .thenReturn(item);
-
         bookingToReturn.setStatus(Status.REJECTED);
 
         Mockito.when(bookingRepository.save(bookingToSave))
@@ -175,21 +217,16 @@ public class BookingServiceTest {
 
         assertEquals(Status.REJECTED, approvedBooking.getStatus());
         verify(bookingRepository, atMostOnce()).save(any(Booking.class));
+        verify(bookingIntervalIndex).remove(bookingToReturn);
     }
 
     @Test
     void approveBooking_shouldThrowsBadRequestException_whenAlreadyRejectedOrApproved() {
         bookingToSave.setStatus(Status.REJECTED);
 
-        Mockito.when(bookingRepository.findById(anyLong()))
+        Mockito.when(bookingRepository.findWithItemById(anyLong()))
                 .thenReturn(Optional.of(bookingToSave));
 
-        Mockito.when(userService.getUserIfExist(1L))
-                .thenReturn(owner);
-
-        Mockito.when(itemService.getItemIfExist(anyLong()))
-                .thenReturn(item);
-
         assertThrows(
                 BadRequestException.class,
                 () -> bookingService.approveBooking(1L, 1L, false)
@@ -199,9 +236,7 @@ public class BookingServiceTest {
 
     @Test
     void getBooking_shouldReturnBookingDto_whenFound() {
-        Mockito.when(userService.getUserIfExist(1L))
-                .thenReturn(owner);
-        Mockito.when(bookingRepository.findById(anyLong()))
+        Mockito.when(bookingRepository.findWithItemById(anyLong()))
                 .thenReturn(Optional.of(bookingToSave));
 
         BookingDto actualBookingDto = bookingService.getBookingById(1L, 1L);
@@ -211,9 +246,7 @@ public class BookingServiceTest {
 
     @Test
     void getBooking_shouldThrowsNotFoundException_whenNotFound() {
-        Mockito.when(userService.getUserIfExist(1L))
-                .thenReturn(owner);
-        Mockito.when(bookingRepository.findById(anyLong()))
+        Mockito.when(bookingRepository.findWithItemById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(
@@ -222,40 +255,63 @@ public class BookingServiceTest {
         );
     }
 
+    @Test
+    void getBooking_shouldThrowsUserVerificationException_whenUserNeitherOwnerNorBooker() {
+        Mockito.when(bookingRepository.findWithItemById(anyLong()))
+                .thenReturn(Optional.of(bookingToSave));
+
+        assertThrows(
+                UserVerificationException.class,
+                () -> bookingService.getBookingById(3L, 1L)
+        );
+        verify(userService).checkUserExist(3L);
+    }
+
+    @Test
+    void approveBooking_shouldThrowsNotFoundException_whenUserNotOwner() {
+        Mockito.when(bookingRepository.findWithItemById(anyLong()))
+                .thenReturn(Optional.of(bookingToSave));
+
+        assertThrows(
+                NotFoundException.class,
+                () -> bookingService.approveBooking(2L, 1L, true)
+        );
+        verify(userService).checkUserExist(2L);
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     void getUserBookings_shouldReturnListOfBookings_whenInvoked() {
         List<BookingDto> actualDto;
 
-        Mockito.when(userService.getUserIfExist(2L))
-                .thenReturn(booker);
-        Mockito.when(bookingRepository.findAllByBookerIdIsOrderByIdDesc(any(), any()))
-                .thenReturn(List.of(bookingToReturn));
+        Mockito.when(bookingRepository.findAllBookerBookings(any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
 
         actualDto = bookingService.getUserBookings(2L, "ALL", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        Mockito.when(bookingRepository.findAllPastBookings(any(), any()))
-                .thenReturn(List.of(bookingToReturn));
+        Mockito.when(bookingRepository.findAllPastBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getUserBookings(2L, "PAST", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        Mockito.when(bookingRepository.findAllFutureBookings(any(), any()))
-                .thenReturn(List.of(bookingToReturn));
+        Mockito.when(bookingRepository.findAllFutureBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getUserBookings(2L, "FUTURE", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        Mockito.when(bookingRepository.findAllCurrentBookings(any(), any()))
-                .thenReturn(List.of(bookingToReturn));
+        Mockito.when(bookingRepository.findAllCurrentBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getUserBookings(2L, "CURRENT", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        Mockito.when(bookingRepository.findAllWaitingBookings(any()))
-                .thenReturn(List.of(bookingToReturn));
+        Mockito.when(bookingRepository.findAllWaitingBookings(any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getUserBookings(2L, "WAITING", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        Mockito.when(bookingRepository.findAllRejectedBookings(any()))
-                .thenReturn(List.of(bookingToReturn));
+        Mockito.when(bookingRepository.findAllRejectedBookings(any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getUserBookings(2L, "REJECTED", 1L, 1);
         assertEquals(1, actualDto.size());
     }
@@ -263,36 +319,34 @@ public class BookingServiceTest {
     @Test
     void getOwnerBookings_shouldReturnListOfBookings_whenInvoked() {
         List<BookingDto> actualDto;
-        when(userService.getUserIfExist(1L))
-                .thenReturn(owner);
 
-        when(bookingRepository.findAllOwnerBookings(any(), any()))
-                .thenReturn(List.of(bookingToReturn));
+        when(bookingRepository.findAllOwnerBookings(any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getBookingsByOwner(1L, "ALL", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        when(bookingRepository.findAllOwnerPastBookings(any(), any()))
-                .thenReturn(List.of(bookingToReturn));
+        when(bookingRepository.findAllOwnerPastBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getBookingsByOwner(1L, "PAST", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        when(bookingRepository.findAllOwnerFutureBookings(any(), any()))
-                .thenReturn(List.of(bookingToReturn));
+        when(bookingRepository.findAllOwnerFutureBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getBookingsByOwner(1L, "FUTURE", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        when(bookingRepository.findAllOwnerCurrentBookings(any(), any()))
-                .thenReturn(List.of(bookingToReturn));
+        when(bookingRepository.findAllOwnerCurrentBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getBookingsByOwner(1L, "CURRENT", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        when(bookingRepository.findAllOwnerWaitingBookings(any()))
-                .thenReturn(List.of(bookingToReturn));
+        when(bookingRepository.findAllOwnerWaitingBookings(any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getBookingsByOwner(1L, "WAITING", 1L, 1);
         assertEquals(1, actualDto.size());
 
-        when(bookingRepository.findAllOwnerRejectedBookings(any()))
-                .thenReturn(List.of(bookingToReturn));
+        when(bookingRepository.findAllOwnerRejectedBookings(any(), any(), any()))
+                .thenReturn(List.of(BookingRow.of(bookingToReturn)));
         actualDto = bookingService.getBookingsByOwner(1L, "REJECTED", 1L, 1);
         assertEquals(1, actualDto.size());
     }
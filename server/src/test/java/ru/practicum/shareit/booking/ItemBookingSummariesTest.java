@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ItemBookingSummaries.class)
+@TestPropertySource(properties = {"db.name=test"})
+public class ItemBookingSummariesTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private ItemBookingSummaries itemBookingSummaries;
+
+    LocalDateTime now;
+    User booker;
+    Item item;
+
+    @BeforeEach
+    void setup() {
+        now = LocalDateTime.now();
+
+        User owner = entityManager.persist(new User(null, "owner", "owner@email"));
+        booker = entityManager.persist(new User(null, "booker", "booker@email"));
+
+        item = new Item("name", "description", true);
+        item.setOwner(owner);
+        entityManager.persist(item);
+        itemBookingSummaries.itemsCreated(List.of(item.getId()));
+        entityManager.flush();
+    }
+
+    @Test
+    void statusChanged_shouldTakeBookingAsNext_whenFutureBookingApproved() {
+        Booking booking = persistBooking(now.plusDays(1), Status.APPROVED);
+
+        itemBookingSummaries.statusChanged(booking, now);
+
+        ItemBookingSummary summary = reload();
+        assertEquals(booking.getId(), summary.getNextBookingId());
+        assertEquals(booker.getId(), summary.getNextBookerId());
+        assertNull(summary.getLastBookingId());
+    }
+
+    @Test
+    void statusChanged_shouldKeepCloserNext_whenLaterBookingApproved() {
+        Booking closer = persistBooking(now.plusDays(1), Status.APPROVED);
+        itemBookingSummaries.statusChanged(closer, now);
+        Booking later = persistBooking(now.plusDays(5), Status.APPROVED);
+
+        itemBookingSummaries.statusChanged(later, now);
+
+        assertEquals(closer.getId(), reload().getNextBookingId());
+    }
+
+    @Test
+    void statusChanged_shouldFallBackToFollowingBooking_whenNextBookingRejected() {
+        Booking closer = persistBooking(now.plusDays(1), Status.APPROVED);
+        itemBookingSummaries.statusChanged(closer, now);
+        Booking later = persistBooking(now.plusDays(5), Status.APPROVED);
+        itemBookingSummaries.statusChanged(later, now);
+
+        closer.setStatus(Status.REJECTED);
+        entityManager.flush();
+        itemBookingSummaries.statusChanged(closer, now);
+
+        assertEquals(later.getId(), reload().getNextBookingId());
+    }
+
+    @Test
+    void advance_shouldMoveNextToLast_whenNextBookingStarted() {
+        Booking first = persistBooking(now.plusHours(1), Status.APPROVED);
+        itemBookingSummaries.statusChanged(first, now);
+        Booking second = persistBooking(now.plusDays(5), Status.APPROVED);
+        itemBookingSummaries.statusChanged(second, now);
+        entityManager.flush();
+
+        LocalDateTime later = now.plusHours(2);
+        assertEquals(1, itemBookingSummaries.advance(later, 10));
+        assertEquals(0, itemBookingSummaries.advance(later, 10));
+
+        ItemBookingSummary summary = reload();
+        assertEquals(first.getId(), summary.getLastBookingId());
+        assertEquals(second.getId(), summary.getNextBookingId());
+        assertTrue(summary.isCurrent(later));
+    }
+
+    @Test
+    void get_shouldReadBookings_whenSummaryIsOutdated() {
+        Booking first = persistBooking(now.plusHours(1), Status.APPROVED);
+        itemBookingSummaries.statusChanged(first, now);
+        entityManager.flush();
+
+        ItemBookingSummary summary = itemBookingSummaries.get(item.getId(), now.plusHours(2));
+
+        assertEquals(first.getId(), summary.lastBooking().getId());
+        assertNull(summary.nextBooking());
+        assertEquals(first.getId(), reload().getNextBookingId());
+    }
+
+    @Test
+    void get_shouldReadBookings_whenSummaryIsMissing() {
+        Item other = new Item("other", "description", true);
+        other.setOwner(item.getOwner());
+        entityManager.persist(other);
+        Booking booking = new Booking(now.minusDays(2), now.minusDays(1), Status.APPROVED);
+        booking.setItem(other);
+        booking.setBooker(booker);
+        entityManager.persist(booking);
+        entityManager.flush();
+
+        ItemBookingSummary summary = itemBookingSummaries.get(other.getId(), now);
+
+        assertEquals(booking.getId(), summary.lastBooking().getId());
+        assertEquals(booker.getId(), summary.lastBooking().getBookerId());
+    }
+
+    private Booking persistBooking(LocalDateTime start, Status status) {
+        Booking booking = new Booking(start, start.plusDays(1), status);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        entityManager.persist(booking);
+        entityManager.flush();
+        return booking;
+    }
+
+    private ItemBookingSummary reload() {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(ItemBookingSummary.class, item.getId());
+    }
+}
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingImporter;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemBookingSummaries;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.DatabaseItemSearchEngine;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemImporter;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserImporter;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Chunks commit on their own, so the test runs outside a test transaction and cleans up after itself.
+ */
+@DataJpaTest
+@Import({UserImporter.class, ItemImporter.class, BookingImporter.class, DatabaseItemSearchEngine.class,
+        BookingIntervalIndex.class, ItemBookingSummaries.class})
+@TestPropertySource(properties = {"db.name=test"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BulkImportTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private UserImporter userImporter;
+    @Autowired
+    private ItemImporter itemImporter;
+    @Autowired
+    private BookingImporter bookingImporter;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private NdjsonImporter ndjsonImporter;
+
+    @BeforeEach
+    void setup() {
+        ndjsonImporter = new NdjsonImporter(mapper, entityManagerFactory, transactionManager, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importUsers_shouldReportDuplicateAndMalformedRows_whenOtherRowsAreValid() throws IOException {
+        userRepository.save(new User(null, "taken", "taken@email"));
+        String upload = "{\"name\":\"a\",\"email\":\"a@email\"}\n" +
+                "{\"name\":\"b\",\"email\":\"taken@email\"}\n" +
+                "not json\n" +
+                "\n" +
+                "{\"name\":\"c\",\"email\":\"a@email\"}\n" +
+                "{\"name\":\"d\",\"email\":\"d@email\"}\n";
+
+        List<String> report = importRows(upload, UserDto.class, userImporter::importChunk);
+
+        assertEquals(4, report.size());
+        assertEquals(2, failureOf(report.get(0)).getLine());
+        assertEquals("User with email taken@email already exists.", failureOf(report.get(0)).getError());
+        assertEquals(3, failureOf(report.get(1)).getLine());
+        assertEquals(5, failureOf(report.get(2)).getLine());
+        ImportSummary summary = mapper.readValue(report.get(3), ImportSummary.class);
+        assertEquals(2, summary.getImported());
+        assertEquals(3, summary.getFailed());
+        assertEquals(3, userRepository.count());
+    }
+
+    @Test
+    void importUsers_shouldKeepOtherRowsOfChunk_whenDatabaseRejectsBatch() throws IOException {
+        String upload = "{\"name\":\"a\",\"email\":\"a@email\"}\n" +
+                "{\"email\":\"nameless@email\"}\n";
+
+        List<String> report = importRows(upload, UserDto.class, userImporter::importChunk);
+
+        assertEquals(2, report.size());
+        assertEquals(2, failureOf(report.get(0)).getLine());
+        assertEquals("Row conflicts with existing data.", failureOf(report.get(0)).getError());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void importItems_shouldRejectRow_whenRequestDoesNotExist() throws IOException {
+        User owner = userRepository.save(new User(null, "owner", "owner@email"));
+        String upload = "{\"name\":\"drill\",\"description\":\"drill\",\"available\":true}\n" +
+                "{\"name\":\"saw\",\"description\":\"saw\",\"available\":true,\"requestId\":999}\n";
+
+        List<String> report = importRows(upload, ItemDto.class,
+                (rows, failures) -> itemImporter.importChunk(owner.getId(), rows, failures));
+
+        assertEquals(2, failureOf(report.get(0)).getLine());
+        assertEquals("Request does not exist.", failureOf(report.get(0)).getError());
+        assertEquals(1, itemRepository.count());
+    }
+
+    @Test
+    void importBookings_shouldRejectBrokenRows_whenOtherRowsAreValid() throws IOException {
+        User owner = userRepository.save(new User(null, "owner", "owner@email"));
+        User booker = userRepository.save(new User(null, "booker", "booker@email"));
+        Item available = new Item("drill", "drill", true);
+        available.setOwner(owner);
+        itemRepository.save(available);
+        Item unavailable = new Item("saw", "saw", false);
+        unavailable.setOwner(owner);
+        itemRepository.save(unavailable);
+
+        String upload = booking(available.getId(), "2030-01-01T10:00:00", "2030-01-02T10:00:00") +
+                booking(available.getId(), "2030-01-01T22:00:00", "2030-01-03T10:00:00") +
+                booking(unavailable.getId(), "2030-01-01T10:00:00", "2030-01-02T10:00:00") +
+                booking(999L, "2030-01-01T10:00:00", "2030-01-02T10:00:00") +
+                booking(available.getId(), "2030-01-01T12:00:00", "2030-01-01T14:00:00");
+
+        List<String> report = importRows(upload, BookingDto.class,
+                (rows, failures) -> bookingImporter.importChunk(booker.getId(), rows, failures));
+
+        assertEquals("Item is already booked for this period.", failureOf(report.get(0)).getError());
+        assertEquals("Item is not available.", failureOf(report.get(1)).getError());
+        assertEquals("Item with id 999 not found.", failureOf(report.get(2)).getError());
+        assertEquals(5, failureOf(report.get(3)).getLine());
+        assertEquals("Item is already booked for this period.", failureOf(report.get(3)).getError());
+        assertEquals(1, mapper.readValue(report.get(4), ImportSummary.class).getImported());
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void importUsers_shouldStartEachChunkWithEmptyContext_whenRequestEntityManagerIsOpen() throws IOException {
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                new EntityManagerHolder(requestEntityManager));
+        List<Integer> managedAtChunkStart = new ArrayList<>();
+        String upload = "{\"name\":\"a\",\"email\":\"a@email\"}\n" +
+                "{\"name\":\"b\",\"email\":\"b@email\"}\n" +
+                "{\"name\":\"c\",\"email\":\"c@email\"}\n" +
+                "{\"email\":\"nameless@email\"}\n" +
+                "{\"name\":\"e\",\"email\":\"e@email\"}\n" +
+                "{\"name\":\"f\",\"email\":\"f@email\"}\n";
+
+        try {
+            importRows(upload, UserDto.class, (rows, failures) -> {
+                managedAtChunkStart.add(entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+                userImporter.importChunk(rows, failures);
+            });
+
+            assertEquals(0, requestEntityManager.unwrap(Session.class).getStatistics().getEntityCount());
+            assertSame(requestEntityManager,
+                    ((EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory))
+                            .getEntityManager());
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            requestEntityManager.close();
+        }
+        // three chunks, the second one failed as a batch and was replayed row by row
+        assertEquals(List.of(0, 0, 0, 0, 0), managedAtChunkStart);
+        assertEquals(5, userRepository.count());
+    }
+
+    private <T> List<String> importRows(String upload, Class<T> type, ChunkImporter<T> importer) throws IOException {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        ndjsonImporter.importRows(new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)), report, type,
+                importer);
+        return List.of(report.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    private ImportFailure failureOf(String line) throws IOException {
+        return mapper.readValue(line, ImportFailure.class);
+    }
+
+    private static String booking(Long itemId, String start, String end) {
+        return "{\"itemId\":" + itemId + ",\"start\":\"" + start + "\",\"end\":\"" + end + "\"}\n";
+    }
+}
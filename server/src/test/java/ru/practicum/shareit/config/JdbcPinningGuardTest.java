@@ -0,0 +1,45 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+public class JdbcPinningGuardTest {
+
+    @Mock
+    private DatabaseMetaData metaData;
+
+    @Test
+    void pinsCarrierThreads_shouldReturnFalse_whenPostgresDriverUsesLocks() throws SQLException {
+        Mockito.when(metaData.getDriverName()).thenReturn("PostgreSQL JDBC Driver");
+        Mockito.when(metaData.getDriverMajorVersion()).thenReturn(42);
+        Mockito.when(metaData.getDriverMinorVersion()).thenReturn(7);
+
+        assertFalse(JdbcPinningGuard.pinsCarrierThreads(metaData));
+    }
+
+    @Test
+    void pinsCarrierThreads_shouldReturnTrue_whenPostgresDriverIsSynchronized() throws SQLException {
+        Mockito.when(metaData.getDriverName()).thenReturn("PostgreSQL JDBC Driver");
+        Mockito.when(metaData.getDriverMajorVersion()).thenReturn(42);
+        Mockito.when(metaData.getDriverMinorVersion()).thenReturn(3);
+
+        assertTrue(JdbcPinningGuard.pinsCarrierThreads(metaData));
+    }
+
+    @Test
+    void pinsCarrierThreads_shouldReturnTrue_whenDriverIsUnknown() throws SQLException {
+        Mockito.when(metaData.getDriverName()).thenReturn("H2 JDBC Driver");
+
+        assertTrue(JdbcPinningGuard.pinsCarrierThreads(metaData));
+    }
+}
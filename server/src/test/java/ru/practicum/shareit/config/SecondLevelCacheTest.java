@@ -0,0 +1,158 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.ItemBookingSummaries;
+import ru.practicum.shareit.item.DatabaseItemSearchEngine;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.UserServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read-write regions are only written when a transaction commits, so the test runs outside a test transaction
+ * and every repository call reads through a fresh session.
+ */
+@DataJpaTest
+@Import({SecondLevelCacheConfig.class, UserServiceImpl.class, UserCache.class, ItemServiceImpl.class,
+        DatabaseItemSearchEngine.class, BookingIntervalIndex.class, ItemBookingSummaries.class})
+@TestPropertySource(properties = {"db.name=test", "shareit.second-level-cache.enabled=true"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterBinder secondLevelCacheMetrics;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    User owner;
+    User requestor;
+    ItemRequest request;
+    Item item;
+    Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        owner = userRepository.save(new User(null, "owner", "owner@email"));
+        requestor = userRepository.save(new User(null, "requestor", "requestor@email"));
+
+        request = new ItemRequest("need a drill");
+        request.setRequestor(requestor);
+        request.setCreated(LocalDateTime.now());
+        request = itemRequestRepository.save(request);
+
+        item = new Item("drill", "description", true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        item = itemRepository.save(item);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findById_shouldHitRegion_whenItemWasReadBefore() {
+        itemRepository.findById(item.getId());
+        itemRepository.findById(item.getId());
+
+        assertEquals(1, statistics.getCacheRegionStatistics(Item.CACHE_REGION).getMissCount());
+        assertEquals(1, statistics.getCacheRegionStatistics(Item.CACHE_REGION).getHitCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateItem_shouldReplaceCachedItem_whenOwnerRenamesIt() {
+        itemRepository.findById(item.getId());
+
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "hammer drill", null, null, null, null));
+
+        assertEquals("hammer drill", itemRepository.findById(item.getId()).orElseThrow().getName());
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+    }
+
+    @Test
+    void updateUser_shouldReplaceCachedUser_whenNameChanges() {
+        userRepository.findById(owner.getId());
+
+        userService.updateUser(owner.getId(), new UserDto(null, "renamed", null));
+
+        assertEquals("renamed", userRepository.findById(owner.getId()).orElseThrow().getName());
+        assertEquals("owner@email", userRepository.findById(owner.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void deleteUser_shouldEvictUserAndCascadedRequest_whenRequestorIsDeleted() {
+        userRepository.findById(requestor.getId());
+        itemRequestRepository.findById(request.getId());
+        itemRepository.findById(item.getId());
+        assertTrue(entityManagerFactory.getCache().contains(ItemRequest.class, request.getId()));
+
+        userService.deleteUser(requestor.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, requestor.getId()));
+        assertTrue(userRepository.findById(requestor.getId()).isEmpty());
+        // removed and unlinked by the database, not by Hibernate
+        assertTrue(itemRequestRepository.findById(request.getId()).isEmpty());
+        assertNull(itemRepository.findById(item.getId()).orElseThrow().getRequest());
+    }
+
+    @Test
+    void secondLevelCacheMetrics_shouldCountRegionRequests_whenBound() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        secondLevelCacheMetrics.bindTo(registry);
+
+        userRepository.findById(owner.getId());
+        userRepository.findById(owner.getId());
+
+        assertEquals(1, registry.get("shareit.second.level.cache.requests")
+                .tags("region", User.CACHE_REGION, "result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("shareit.second.level.cache.requests")
+                .tags("region", User.CACHE_REGION, "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("shareit.second.level.cache.puts")
+                .tag("region", User.CACHE_REGION).functionCounter().count());
+    }
+}
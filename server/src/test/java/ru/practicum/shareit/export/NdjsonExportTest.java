@@ -0,0 +1,167 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingServiceImpl;
+import ru.practicum.shareit.booking.ItemBookingSummaries;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exeption.BadRequestException;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.DatabaseItemSearchEngine;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.UserServiceImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({BookingServiceImpl.class, ItemServiceImpl.class, DatabaseItemSearchEngine.class, UserServiceImpl.class,
+        UserCache.class, BookingIntervalIndex.class, ItemBookingSummaries.class})
+@TestPropertySource(properties = {"db.name=test"})
+public class NdjsonExportTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final NdjsonExporter exporter = new NdjsonExporter(mapper);
+
+    User owner;
+    User booker;
+    Item item;
+
+    @BeforeEach
+    void setup() {
+        LocalDateTime now = LocalDateTime.now();
+
+        owner = entityManager.persist(new User(null, "owner", "owner@email"));
+        booker = entityManager.persist(new User(null, "booker", "booker@email"));
+        User stranger = entityManager.persist(new User(null, "stranger", "stranger@email"));
+
+        item = persistItem("drill", owner);
+        persistItem("saw", owner);
+        persistItem("ladder", stranger);
+
+        persistBooking(now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        persistBooking(now.plusDays(1), now.plusDays(2), Status.WAITING);
+        persistBooking(now.plusDays(3), now.plusDays(4), Status.WAITING);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportBookingsByOwner_shouldWriteLinePerBookingNewestFirst_whenStateMatches() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exporter.exportRows(out, BookingDto.class,
+                rows -> bookingService.exportBookingsByOwner(owner.getId(), "WAITING", rows));
+
+        List<JsonNode> bookings = readLines(out);
+        assertEquals(2, written);
+        assertEquals(2, bookings.size());
+        assertTrue(bookings.get(0).get("id").asLong() > bookings.get(1).get("id").asLong());
+        assertEquals("drill", bookings.get(0).at("/item/name").asText());
+        assertEquals(booker.getId(), bookings.get(0).at("/booker/id").asLong());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+    }
+
+    @Test
+    void exportBookingsByOwner_shouldApplyTimeStates_whenStateIsPastOrFuture() throws IOException {
+        assertEquals(1, exporter.exportRows(new ByteArrayOutputStream(), BookingDto.class,
+                rows -> bookingService.exportBookingsByOwner(owner.getId(), "PAST", rows)));
+        assertEquals(2, exporter.exportRows(new ByteArrayOutputStream(), BookingDto.class,
+                rows -> bookingService.exportBookingsByOwner(owner.getId(), "FUTURE", rows)));
+        assertEquals(0, exporter.exportRows(new ByteArrayOutputStream(), BookingDto.class,
+                rows -> bookingService.exportBookingsByOwner(booker.getId(), "ALL", rows)));
+    }
+
+    @Test
+    void exportBookingsByOwner_shouldFailBeforeFirstRow_whenStateOrUserIsUnknown() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(BadRequestException.class, () -> exporter.exportRows(out, BookingDto.class,
+                rows -> bookingService.exportBookingsByOwner(owner.getId(), "UNSUPPORTED", rows)));
+        assertThrows(NotFoundException.class, () -> exporter.exportRows(out, BookingDto.class,
+                rows -> bookingService.exportBookingsByOwner(Long.MAX_VALUE, "ALL", rows)));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void exportUserBookings_shouldWriteOnlyBookerBookings_whenStateMatches() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exporter.exportRows(out, BookingDto.class,
+                rows -> bookingService.exportUserBookings(booker.getId(), "FUTURE", rows));
+
+        List<JsonNode> bookings = readLines(out);
+        assertEquals(2, written);
+        assertTrue(bookings.get(0).get("id").asLong() > bookings.get(1).get("id").asLong());
+        assertEquals(booker.getId(), bookings.get(1).at("/booker/id").asLong());
+        assertEquals(0, exporter.exportRows(new ByteArrayOutputStream(), BookingDto.class,
+                rows -> bookingService.exportUserBookings(owner.getId(), "ALL", rows)));
+    }
+
+    @Test
+    void exportItemsByOwner_shouldWriteOnlyOwnerItemsInIdOrder_whenOwnerHasItems() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.exportRows(out, ItemDto.class, rows -> itemService.exportItemsByOwner(owner.getId(), rows));
+
+        List<JsonNode> items = readLines(out);
+        assertEquals(2, items.size());
+        assertEquals("drill", items.get(0).get("name").asText());
+        assertEquals("saw", items.get(1).get("name").asText());
+        assertEquals(owner.getId(), items.get(1).get("owner").asLong());
+        assertTrue(items.get(0).get("requestId").isNull());
+    }
+
+    private Item persistItem(String name, User itemOwner) {
+        Item persisted = new Item(name, "description", true);
+        persisted.setOwner(itemOwner);
+        return entityManager.persist(persisted);
+    }
+
+    private void persistBooking(LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking(start, end, status);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        entityManager.persist(booking);
+    }
+
+    private List<JsonNode> readLines(ByteArrayOutputStream out) throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                rows.add(mapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+}
@@ -108,4 +108,11 @@ public class CommentRepositoryTest {
         assertEquals(1, comments.size());
     }
 
+    @Test
+    void findAllByItemIdIn_shouldReturnCommentsWithAuthors_whenSeveralItemsRequested() {
+        List<Comment> comments = commentRepository.findAllByItemIdIn(List.of(item1.getId(), item2.getId()));
+
+        assertEquals(1, comments.size());
+        assertEquals(author.getName(), comments.get(0).getAuthor().getName());
+    }
 }
@@ -10,8 +10,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingPeriod;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -20,6 +22,8 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -90,7 +94,8 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.id", is(itemDto.getId()), Long.class))
                 .andExpect(jsonPath("$.name", is(itemDto.getName())))
                 .andExpect(jsonPath("$.description", is(itemDto.getDescription())))
-                .andExpect(jsonPath("$.owner", is(itemDto.getOwner()), Long.class));
+                .andExpect(jsonPath("$.owner", is(itemDto.getOwner()), Long.class))
+                .andExpect(header().string("X-Cache-Invalidate", "/items/1"));
         verify(itemService, times(1)).updateItem(any(), any(), any());
     }
 
@@ -175,4 +180,96 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName", is(commentDto.getAuthorName())));
         verify(itemService, times(1)).addComment(any(), any(), any());
     }
+
+    @Test
+    void getItemAvailability_shouldReturnStatusOkAndAvailabilityJson_whenInvoked() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 5, 10, 0);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(1L, from, to,
+                List.of(), List.of(new BookingPeriod(from, to)));
+
+        when(itemService.getItemAvailability(1L, from, to))
+                .thenReturn(availability);
+
+        mockMvc.perform(get("/items/{id}/availability", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-05T10:00:00")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1L), Long.class))
+                .andExpect(jsonPath("$.free.length()", is(1)))
+                .andExpect(jsonPath("$.busy.length()", is(0)));
+        verify(itemService, times(1)).getItemAvailability(1L, from, to);
+    }
+
+    @Test
+    void getItemsByOwner_shouldReturnNextCursorHeader_whenPageIsFull() throws Exception {
+        when(itemService.getItemsByOwnerAfter(1L, 0L, 1))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items")
+                        .param("after", "")
+                        .param("size", String.valueOf(1))
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER, PageCursor.of(itemDto.getId())))
+                .andExpect(jsonPath("$.[0].id", is(itemDto.getId()), Long.class));
+        verify(itemService, never()).getItemsByOwner(any(), any(), any());
+    }
+
+    @Test
+    void search_shouldSeekAfterCursorId_whenCursorGiven() throws Exception {
+        when(itemService.searchItemsAfter("name", 5L, 10))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "name")
+                        .param("after", PageCursor.of(5L))
+                        .param("size", String.valueOf(10)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PageCursor.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.[0].id", is(itemDto.getId()), Long.class));
+        verify(itemService, times(1)).searchItemsAfter("name", 5L, 10);
+    }
+
+    @Test
+    void search_shouldReturnStatusBadRequest_whenCursorMalformed() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "name")
+                        .param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        verify(itemService, never()).searchItemsAfter(any(), any(), any());
+    }
+
+    @Test
+    void getItem_shouldReturnStatusNotModified_whenEtagMatches() throws Exception {
+        when(itemService.getItem(1L, 1L))
+                .thenReturn(itemDto);
+
+        String etag = mockMvc.perform(get("/items/{Id}", 1L)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/items/{Id}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void search_shouldNotAddEtag_whenPathIsNotCached() throws Exception {
+        when(itemService.searchItems("name", 0L, 10))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "name"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
 }
@@ -14,6 +14,7 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -105,6 +106,13 @@ public class ItemRepositoryTest {
         assertEquals(1, actualItems.size());
     }
 
+    @Test
+    void streamSearchRows_shouldReturnAllItems_whenInvoked() {
+        try (Stream<ItemSearchRow> rows = itemRepository.streamSearchRows()) {
+            assertEquals(2, rows.count());
+        }
+    }
+
     @Test
     void findAllByRequestIdIn_shouldReturnListOfItems_whenFound() {
         List<Item> actualItems = itemRepository.findAllByRequestIdIn(List.of(request1.getId()));
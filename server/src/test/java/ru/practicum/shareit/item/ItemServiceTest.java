@@ -9,7 +9,11 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.TestPropertySource;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingPeriod;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemBookingSummaries;
+import ru.practicum.shareit.booking.ItemBookingSummary;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.NotFoundException;
@@ -23,6 +27,7 @@ import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,6 +49,12 @@ public class ItemServiceTest {
     private ItemRequestRepository itemRequestRepository;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemBookingSummaries itemBookingSummaries;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -124,7 +135,7 @@ public class ItemServiceTest {
 
     @Test
     void addNewItem_shouldReturnItemDto_whenNoRequest() {
-        Mockito.when(userService.getUserIfExist(owner.getId()))
+        Mockito.when(userService.getUserReference(owner.getId()))
                 .thenReturn(owner);
         Mockito.when(itemRepository.save(any(Item.class)))
                 .thenReturn(itemToSave);
@@ -153,12 +164,14 @@ public class ItemServiceTest {
         itemDto.setRequestId(requestId);
         itemToSave.setRequest(itemRequest);
 
-        Mockito.when(userService.getUserIfExist(owner.getId()))
+        Mockito.when(userService.getUserReference(owner.getId()))
                 .thenReturn(owner);
         Mockito.when(itemRepository.save(any(Item.class)))
                 .thenReturn(itemToSave);
-        Mockito.when(itemRequestRepository.findById(requestId))
-                .thenReturn(Optional.of(itemRequest));
+        Mockito.when(itemRequestRepository.existsById(requestId))
+                .thenReturn(true);
+        Mockito.when(itemRequestRepository.getReferenceById(requestId))
+                .thenReturn(itemRequest);
 
         ItemDto savedItemDto = itemService.addItem(owner.getId(), itemDto);
 
@@ -185,10 +198,10 @@ public class ItemServiceTest {
         itemDto.setRequestId(requestId);
         itemToSave.setRequest(itemRequest);
 
-        Mockito.when(userService.getUserIfExist(owner.getId()))
+        Mockito.when(userService.getUserReference(owner.getId()))
                 .thenReturn(owner);
-        Mockito.when(itemRequestRepository.findById(requestId))
-                .thenReturn(Optional.empty());
+        Mockito.when(itemRequestRepository.existsById(requestId))
+                .thenReturn(false);
 
         assertThrows(
                 NotFoundException.class,
@@ -321,10 +334,15 @@ public class ItemServiceTest {
         Long ownerId = 1L;
         Mockito.when(itemRepository.findAllByOwnerIdIsOrderById(anyLong(), any()))
                 .thenReturn(List.of(itemToReturn));
+        Mockito.when(itemBookingSummaries.getAll(eq(List.of(itemToReturn.getId())), any()))
+                .thenReturn(Map.of(itemToReturn.getId(),
+                        ItemBookingSummary.of(itemToReturn.getId(), lastBooking, nextBooking)));
 
         List<ItemDto> actualDtos = itemService.getItemsByOwner(ownerId, 1L, 1);
 
         assertEquals(1, actualDtos.size());
+        assertEquals(lastBooking.getId(), actualDtos.get(0).getLastBooking().getId());
+        assertEquals(nextBooking.getId(), actualDtos.get(0).getNextBooking().getId());
     }
 
     @Test
@@ -336,7 +354,7 @@ public class ItemServiceTest {
 
     @Test
     void search_shouldReturnListOfItems_whenInvoked() {
-        Mockito.when(itemRepository.search(any(), any()))
+        Mockito.when(itemSearchEngine.search(any(), any()))
                 .thenReturn(List.of(itemToReturn));
 
         List<ItemDto> actualDtos = itemService.searchItems("name", 1L, 1);
@@ -373,10 +391,11 @@ public class ItemServiceTest {
         lenient().when(userService.getUserIfExist(authorId))
                 .thenReturn(otherUser);
 
-        lenient().when(itemRepository.findById(1L))
-                .thenReturn(Optional.ofNullable(itemToReturn));
+        lenient().when(bookingRepository.existsByBookerIdAndItemIdAndEndBefore(eq(authorId), eq(1L), any()))
+                .thenReturn(true);
 
-        lenient().when(bookingRepository.findAllPastBookings(anyLong(), any())).thenReturn(List.of(lastBooking));
+        lenient().when(itemRepository.getReferenceById(1L))
+                .thenReturn(itemToReturn);
 
         CommentDto commentToSave = new CommentDto(
                 1L,
@@ -399,11 +418,11 @@ public class ItemServiceTest {
         lenient().when(userService.getUserIfExist(authorId))
                 .thenReturn(otherUser);
 
-        lenient().when(itemRepository.findById(1L))
-                .thenReturn(Optional.ofNullable(itemToReturn));
+        lenient().when(bookingRepository.existsByBookerIdAndItemIdAndEndBefore(eq(authorId), eq(1L), any()))
+                .thenReturn(false);
 
-        lenient().when(bookingRepository.findAllPastBookings(anyLong(), any()))
-                .thenReturn(List.of());
+        lenient().when(itemRepository.existsById(1L))
+                .thenReturn(true);
 
         CommentDto commentToSave = new CommentDto(1L, "text", "author", LocalDateTime.now());
 
@@ -413,6 +432,51 @@ public class ItemServiceTest {
         );
     }
 
+    @Test
+    void getItemAvailability_shouldReturnBusyAndFreePeriods_whenItemBooked() {
+        LocalDateTime from = now.plusDays(1);
+        LocalDateTime to = now.plusDays(10);
+        BookingPeriod busy = new BookingPeriod(now.plusDays(2), now.plusDays(4));
+
+        Mockito.when(itemRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(bookingIntervalIndex.getBusyPeriods(1L, from, to))
+                .thenReturn(List.of(busy));
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(1L, from, to);
+
+        assertEquals(List.of(busy), availability.getBusy());
+        assertEquals(List.of(new BookingPeriod(from, busy.getStart()), new BookingPeriod(busy.getEnd(), to)),
+                availability.getFree());
+    }
+
+    @Test
+    void addComment_shouldThrowsNotFoundException_whenItemNotFound() {
+        Mockito.when(userService.getUserIfExist(2L))
+                .thenReturn(otherUser);
+        Mockito.when(bookingRepository.existsByBookerIdAndItemIdAndEndBefore(eq(2L), eq(1L), any()))
+                .thenReturn(false);
+        Mockito.when(itemRepository.existsById(1L))
+                .thenReturn(false);
+
+        CommentDto commentToSave = new CommentDto(1L, "text", "author", LocalDateTime.now());
+
+        assertThrows(
+                NotFoundException.class,
+                () -> itemService.addComment(2L, 1L, commentToSave)
+        );
+        verify(commentRepository, never()).save(any(Comment.class));
+    }
+
+    @Test
+    void getItemAvailability_shouldThrowsBadRequestException_whenFromNotBeforeTo() {
+        assertThrows(
+                BadRequestException.class,
+                () -> itemService.getItemAvailability(1L, now, now)
+        );
+        verify(bookingIntervalIndex, never()).getBusyPeriods(any(), any(), any());
+    }
+
     @Test
     void getItemsByRequestIdIn_shouldReturnListOfItems_whenInvoked() {
         itemToReturn.setRequest(request);
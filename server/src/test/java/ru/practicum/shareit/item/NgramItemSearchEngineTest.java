@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class NgramItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private NgramItemSearchEngine searchEngine;
+
+    Item drill;
+    Item screwdriver;
+    Item hiddenDrill;
+
+    @BeforeEach
+    void setup() {
+        User owner = new User(1L, "owner", "owner@email");
+
+        drill = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        screwdriver = new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null);
+        hiddenDrill = new Item(3L, "Дрель+", "Дрель с аккумулятором", false, owner, null);
+
+        Mockito.when(itemRepository.streamSearchRows())
+                .thenReturn(Stream.of(drill, screwdriver, hiddenDrill).map(ItemSearchRow::of));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void search_shouldReturnOnlyAvailableItems_whenNameMatches() {
+        Mockito.when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(drill));
+
+        List<Item> items = searchEngine.search("дрель", PageRequest.of(0, 10));
+
+        assertEquals(List.of(drill), items);
+    }
+
+    @Test
+    void search_shouldMatchDescription_whenNameDoesNotMatch() {
+        Mockito.when(itemRepository.findAllById(List.of(2L)))
+                .thenReturn(List.of(screwdriver));
+
+        List<Item> items = searchEngine.search("аккум", PageRequest.of(0, 10));
+
+        assertEquals(List.of(screwdriver), items);
+    }
+
+    @Test
+    void search_shouldReturnEmptyList_whenNothingMatches() {
+        List<Item> items = searchEngine.search("пила", PageRequest.of(0, 10));
+
+        assertTrue(items.isEmpty());
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void search_shouldApplyPaging_whenSeveralItemsMatch() {
+        Mockito.when(itemRepository.findAllById(List.of(2L)))
+                .thenReturn(List.of(screwdriver));
+
+        List<Item> items = searchEngine.search("р", PageRequest.of(1, 1));
+
+        assertEquals(List.of(screwdriver), items);
+    }
+
+    @Test
+    void searchAfter_shouldSkipItemsUpToCursorId_whenSeveralItemsMatch() {
+        Mockito.when(itemRepository.findAllById(List.of(2L)))
+                .thenReturn(List.of(screwdriver));
+
+        List<Item> items = searchEngine.searchAfter("р", 1L, 10);
+
+        assertEquals(List.of(screwdriver), items);
+    }
+
+    @Test
+    void index_shouldReplaceOldTerms_whenItemUpdated() {
+        drill.setName("Перфоратор");
+        drill.setDescription("Мощный перфоратор");
+        searchEngine.index(drill);
+
+        Mockito.when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(drill));
+
+        assertTrue(searchEngine.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(drill), searchEngine.search("перфо", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void index_shouldMakeItemSearchable_whenItemBecomesAvailable() {
+        hiddenDrill.setAvailable(true);
+        searchEngine.index(hiddenDrill);
+
+        Mockito.when(itemRepository.findAllById(List.of(1L, 3L)))
+                .thenReturn(List.of(hiddenDrill, drill));
+
+        assertEquals(List.of(drill, hiddenDrill), searchEngine.search("дрель", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void index_shouldHideItem_whenItemBecomesUnavailable() {
+        drill.setAvailable(false);
+        searchEngine.index(drill);
+
+        assertTrue(searchEngine.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, searchEngine.getStats().getAvailableItems());
+    }
+
+    @Test
+    void getStats_shouldReportIndexSize_whenBuilt() {
+        ItemSearchIndexStats stats = searchEngine.getStats();
+
+        assertAll(
+                () -> assertEquals(3, stats.getItems()),
+                () -> assertEquals(2, stats.getAvailableItems()),
+                () -> assertTrue(stats.getGrams() > 0),
+                () -> assertTrue(stats.getPostings() >= stats.getGrams()),
+                () -> assertTrue(stats.getBuiltAt() != null)
+        );
+    }
+}
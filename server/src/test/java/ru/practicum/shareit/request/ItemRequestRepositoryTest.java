@@ -11,6 +11,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,13 +45,13 @@ public class ItemRequestRepositoryTest {
         requestToSave = new ItemRequest();
         requestToSave.setRequestor(requestor1);
         requestToSave.setDescription("desc");
-        requestToSave.setCreated(LocalDateTime.now().minusDays(2));
+        requestToSave.setCreated(LocalDateTime.now().minusDays(2).truncatedTo(ChronoUnit.MICROS));
         request1 = itemRequestRepository.save(requestToSave);
 
         requestToSave = new ItemRequest();
         requestToSave.setRequestor(requestor1);
         requestToSave.setDescription("desc1");
-        requestToSave.setCreated(LocalDateTime.now().minusDays(1));
+        requestToSave.setCreated(LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.MICROS));
         request2 = itemRequestRepository.save(requestToSave);
     }
 
@@ -95,4 +96,20 @@ public class ItemRequestRepositoryTest {
 
         assertEquals(2, requests.size());
     }
+
+    @Test
+    void findAllOtherRequestsBefore_shouldReturnOlderRequests_whenCursorGiven() {
+        List<ItemRequest> firstPage = itemRequestRepository
+                .findAllByRequestorIdIsNotOrderByCreatedDescIdDesc(requestor2.getId(), PageRequest.of(0, 1));
+        ItemRequest last = firstPage.get(0);
+
+        List<ItemRequest> secondPage = itemRequestRepository.findAllOtherRequestsBefore(requestor2.getId(),
+                last.getCreated(), last.getId(), PageRequest.of(0, 1));
+
+        assertAll(
+                () -> assertEquals(request2.getId(), last.getId()),
+                () -> assertEquals(1, secondPage.size()),
+                () -> assertEquals(request1.getId(), secondPage.get(0).getId())
+        );
+    }
 }
@@ -79,7 +79,7 @@ public class ItemRequestServiceTest {
 
     @Test
     void createNewRequest_shouldSaveAndReturnRequestDto_whenInvoked() {
-        Mockito.when(userService.getUserIfExist(1L))
+        Mockito.when(userService.getUserReference(1L))
                 .thenReturn(requestor);
 
         Mockito.when(itemRequestRepository.save(any(ItemRequest.class)))
@@ -95,9 +95,6 @@ public class ItemRequestServiceTest {
     void getRequestsByUserId_shouldReturnEmptyList_whenNoRequests() {
         Long userId = 1L;
 
-        Mockito.when(userService.getUserIfExist(userId))
-                .thenReturn(requestor);
-
         Mockito.when(itemRequestRepository.findAllByRequestorIdIsOrderByCreatedDesc(userId))
                 .thenReturn(List.of());
 
@@ -113,9 +110,6 @@ public class ItemRequestServiceTest {
     void getUsersRequests_shouldReturnListOfRequests_whenFound() {
         Long userId = 1L;
 
-        Mockito.when(userService.getUserIfExist(userId))
-                .thenReturn(requestor);
-
         Mockito.when(itemRequestRepository.findAllByRequestorIdIsOrderByCreatedDesc(userId))
                 .thenReturn(List.of(requestToReturn));
 
@@ -134,9 +128,6 @@ public class ItemRequestServiceTest {
     void getAllRequests_shouldReturnListOfRequests_whenInvoked() {
         Long userId = 2L;
 
-        Mockito.when(userService.getUserIfExist(userId))
-                .thenReturn(owner);
-
         Mockito.when(itemRequestRepository.findAllByRequestorIdIsNotOrderByCreatedDesc(eq(userId), any()))
                 .thenReturn(List.of(requestToReturn));
 
@@ -156,9 +147,6 @@ public class ItemRequestServiceTest {
         Long userId = 2L;
         Long requestId = 1L;
 
-        Mockito.when(userService.getUserIfExist(userId))
-                .thenReturn(owner);
-
         Mockito.when(itemRequestRepository.findById(requestId))
                 .thenReturn(Optional.of(requestToReturn));
 
@@ -172,9 +160,6 @@ public class ItemRequestServiceTest {
         Long userId = 2L;
         Long requestId = 1L;
 
-        Mockito.when(userService.getUserIfExist(userId))
-                .thenReturn(owner);
-
         Mockito.when(itemRequestRepository.findById(requestId))
                 .thenReturn(Optional.empty());
 
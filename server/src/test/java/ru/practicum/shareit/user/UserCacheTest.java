@@ -0,0 +1,60 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserCacheTest {
+
+    UserCache userCache;
+    User user;
+
+    @BeforeEach
+    void setup() {
+        userCache = new UserCache(10, Duration.ofMinutes(10));
+        user = new User(1L, "name", "email@yandex.ru");
+    }
+
+    @Test
+    void get_shouldReturnCopy_whenUserCached() {
+        userCache.put(user);
+        user.setName("changed");
+
+        User cached = userCache.get(1L).orElseThrow();
+
+        assertNotSame(user, cached);
+        assertEquals("name", cached.getName());
+    }
+
+    @Test
+    void invalidate_shouldRemoveUser_whenInvoked() {
+        userCache.put(user);
+
+        userCache.invalidate(1L);
+
+        assertFalse(userCache.contains(1L));
+        assertTrue(userCache.get(1L).isEmpty());
+    }
+
+    @Test
+    void bindTo_shouldPublishHitAndMissCounts_whenCacheUsed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userCache.bindTo(registry);
+
+        userCache.get(1L);
+        userCache.put(user);
+        userCache.get(1L);
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter().count());
+    }
+}
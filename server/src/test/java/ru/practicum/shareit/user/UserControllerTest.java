@@ -120,11 +120,25 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(userDto.getId()), Long.class))
                 .andExpect(jsonPath("$.name", is(userDto.getName())))
-                .andExpect(jsonPath("$.email", is(userDto.getEmail())));
+                .andExpect(jsonPath("$.email", is(userDto.getEmail())))
+                .andExpect(header().stringValues("X-Cache-Invalidate", "/users/1", "/items"));
 
         verify(userService, times(1)).updateUser(any(), any());
     }
 
+    @Test
+    void updateUser_shouldKeepCachedItems_whenNameIsUnchanged() throws Exception {
+        when(userService.updateUser(any(), any())).thenReturn(userDto);
+
+        mockMvc.perform(patch("/users/{id}", 1L)
+                        .content("{\"email\": \"new@email\"}")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("X-Cache-Invalidate", "/users/1"));
+    }
+
     @Test
     void deleteUser_shouldReturnStatusOk_whenInvoked() throws Exception {
         mockMvc.perform(delete("/users/{id}", 1L))
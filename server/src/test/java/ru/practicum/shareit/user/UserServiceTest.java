@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -10,6 +11,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.TestPropertySource;
 import ru.practicum.shareit.exeption.NotFoundException;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +26,10 @@ public class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserCache userCache;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManagerFactory entityManagerFactory;
     @InjectMocks
     private UserServiceImpl userService;
     User user1;
@@ -136,6 +142,8 @@ public class UserServiceTest {
                 () -> assertEquals(user1.getEmail(), updatedUser.getEmail())
         );
         verify(userRepository).save(user1);
+        verify(userCache).invalidate(1L);
+        verify(userCache, never()).get(anyLong());
     }
 
     @Test
@@ -185,18 +193,20 @@ public class UserServiceTest {
     @Test
     void deleteUser_shouldInvokeUserRepositoryDeleteById_whenInvoked() {
         Long userId = 1L;
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user1));
+        Mockito.when(userRepository.existsById(userId))
+                .thenReturn(true);
 
         userService.deleteUser(userId);
         verify(userRepository).deleteById(userId);
+        verify(userRepository, never()).findById(anyLong());
+        verify(userCache).invalidate(userId);
     }
 
     @Test
     void deleteUser_shouldThrowsNotFoundException_whenUserNotFound() {
         Long userId = 1L;
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(userId))
+                .thenReturn(false);
 
         assertThrows(
                 NotFoundException.class,
@@ -230,4 +240,58 @@ public class UserServiceTest {
         verify(userRepository).findById(userId);
     }
 
+    @Test
+    void checkIfUserExist_shouldNotQueryRepository_whenUserCached() {
+        Mockito.when(userCache.get(1L))
+                .thenReturn(Optional.of(user1));
+
+        User actualUser = userService.getUserIfExist(1L);
+
+        assertEquals(user1.getId(), actualUser.getId());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void checkIfUserExist_shouldCacheUser_whenLoadedFromRepository() {
+        Mockito.when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user1));
+
+        userService.getUserIfExist(1L);
+
+        verify(userCache).put(user1);
+    }
+
+    @Test
+    void checkUserExist_shouldUseExistsQuery_whenUserNotCached() {
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+
+        userService.checkUserExist(1L);
+
+        verify(userRepository).existsById(1L);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void checkUserExist_shouldThrowsNotFoundException_whenUserNotFound() {
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(false);
+
+        assertThrows(
+                NotFoundException.class,
+                () -> userService.checkUserExist(1L)
+        );
+    }
+
+    @Test
+    void getUserReference_shouldReturnReferenceWithoutLoading_whenUserExists() {
+        User reference = new User(1L, "name", "email@yandex.ru");
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(reference);
+
+        assertEquals(reference, userService.getUserReference(1L));
+        verify(userRepository, never()).findById(anyLong());
+    }
 }